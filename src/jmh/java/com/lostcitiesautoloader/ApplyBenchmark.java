@@ -0,0 +1,72 @@
+package com.lostcitiesautoloader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The apply sequence against the stand-in Lost Cities classes: fingerprinting the resolved
+ * presets, then diffing and writing them into Lost Cities' live state
+ *
+ * The config file patch is skipped here; {@link TomlPatchBenchmark} covers it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ApplyBenchmark {
+    private static final String DIMENSION = "lostcities:lostcity";
+
+    private List<AutoloaderProfileManager.DimensionPreset> survival;
+    private List<AutoloaderProfileManager.DimensionPreset> ruins;
+    private Map<String, ?> profiles;
+    private boolean alternate;
+
+    @Setup
+    public void setup() {
+        HeadlessLostCities.install();
+        if (!LostCitiesConnection.isAvailable()) {
+            throw new IllegalStateException("Lost Cities stand-ins not found: " + LostCitiesBridge.describeCapabilities());
+        }
+        profiles = LostCitiesBridge.getStandardProfiles();
+        survival = List.of(new AutoloaderProfileManager.DimensionPreset(DIMENSION, "survival_cities.json",
+                HeadlessLostCities.preset("default", "{\"cityChance\":0.02,\"ruinChance\":0.1}")));
+        ruins = List.of(new AutoloaderProfileManager.DimensionPreset(DIMENSION, "ruins.json",
+                HeadlessLostCities.preset("ancient", "{\"cityChance\":0.02,\"ruinChance\":0.6}")));
+    }
+
+    /**
+     * Every apply switches preset, so every member is written and the caches are refreshed
+     */
+    @Benchmark
+    public ApplyTransaction.Result applyChanged() {
+        alternate = !alternate;
+        return apply(alternate ? ruins : survival);
+    }
+
+    /**
+     * Re-applying the current preset, which should write nothing
+     */
+    @Benchmark
+    public ApplyTransaction.Result applyUnchanged() {
+        return apply(survival);
+    }
+
+    private ApplyTransaction.Result apply(List<AutoloaderProfileManager.DimensionPreset> presets) {
+        ProfileApplyEngine.fingerprint(presets, profiles.keySet());
+        PresetCache.Preset preset = presets.get(0).preset();
+        return new ApplyTransaction()
+                .setJson(preset.settingsJson())
+                .setProfile(preset.profileName())
+                .putDimensionProfile(DIMENSION, preset.profileName())
+                .assumeConfigFileCurrent()
+                .commit();
+    }
+}
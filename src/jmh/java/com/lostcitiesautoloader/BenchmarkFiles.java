@@ -0,0 +1,66 @@
+package com.lostcitiesautoloader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Sample inputs shared by the benchmarks
+ */
+final class BenchmarkFiles {
+    static final String SURVIVAL_PRESET = """
+            {
+                "profile": "default",
+                "description": "Balanced cities suitable for survival gameplay",
+                "settings": {
+                    "cityChance": 0.02,
+                    "generateSpawners": true,
+                    "generateLighting": true,
+                    "generateLoot": true,
+                    "ruinChance": 0.1,
+                    "vineChance": 0.1
+                }
+            }
+            """;
+
+    static final String RUINS_PRESET = """
+            {
+                "extends": "survival_cities",
+                "description": "Survival cities in ruins",
+                "settings": {
+                    "ruinChance": 0.6,
+                    "vineChance": 0.4
+                }
+            }
+            """;
+
+    static final String COMMON_TOML = """
+            #Lost Cities common settings
+            [general]
+            \t#Default profile for new worlds
+            \tprofile = "default"
+            \t#List of dimensions with their Lost Cities profile
+            \tdimensionsWithProfiles = ["lostcities:lostcity=default", "minecraft:the_nether=cavern"]
+            \t#Force generation of the spawn area
+            \tforceSpawnInBuilding = false
+            """;
+
+    private BenchmarkFiles() {
+    }
+
+    static Path write(Path directory, String fileName, String content) throws IOException {
+        Path file = directory.resolve(fileName);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
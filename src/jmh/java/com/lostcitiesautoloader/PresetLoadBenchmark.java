@@ -0,0 +1,64 @@
+package com.lostcitiesautoloader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a preset: reading the file, parsing it and canonicalizing its settings
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PresetLoadBenchmark {
+    private Path directory;
+    private Path survival;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("autoloader-presets");
+        survival = BenchmarkFiles.write(directory, "survival_cities.json", BenchmarkFiles.SURVIVAL_PRESET);
+        BenchmarkFiles.write(directory, "ruins.json", BenchmarkFiles.RUINS_PRESET);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFiles.delete(directory);
+    }
+
+    /**
+     * A preset that is not cached yet, as on the first apply
+     */
+    @Benchmark
+    public PresetCache.Preset loadUncached() throws IOException {
+        PresetCache.invalidate(survival);
+        return PresetCache.get(survival);
+    }
+
+    /**
+     * A preset that is cached and unchanged, which costs a stat call
+     */
+    @Benchmark
+    public PresetCache.Preset loadCached() throws IOException {
+        return PresetCache.get(survival);
+    }
+
+    /**
+     * A preset that extends another, resolved from scratch
+     */
+    @Benchmark
+    public PresetCache.Preset resolveExtended() throws IOException {
+        PresetResolver.invalidateAll();
+        return PresetResolver.resolve("ruins", name -> PresetCache.get(directory.resolve(name + ".json")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.lostcitiesautoloader;
+
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawn coordinate and facing resolution: once per config load, then once per login
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpawnResolutionBenchmark {
+    private static final BlockPos WORLD_SPAWN = new BlockPos(0, 64, 0);
+
+    private ConfigSnapshot withCoordinates;
+    private ConfigSnapshot withoutCoordinates;
+
+    @Setup
+    public void setup() {
+        withCoordinates = parse("100.5, 72, -340.5", "90");
+        withoutCoordinates = parse("", "");
+    }
+
+    /**
+     * Parsing the spawn settings when the config is loaded
+     */
+    @Benchmark
+    public ConfigSnapshot parseConfig() {
+        return parse("100.5, 72, -340.5", "90");
+    }
+
+    /**
+     * Picking the target on login with configured coordinates and facing
+     */
+    @Benchmark
+    public DimensionManager.SpawnTarget resolveConfigured() {
+        return DimensionManager.resolveSpawnTarget(withCoordinates, WORLD_SPAWN, 12.5f);
+    }
+
+    /**
+     * Picking the target on login falling back to the world spawn and current facing
+     */
+    @Benchmark
+    public DimensionManager.SpawnTarget resolveDefault() {
+        return DimensionManager.resolveSpawnTarget(withoutCoordinates, WORLD_SPAWN, 12.5f);
+    }
+
+    private static ConfigSnapshot parse(String coordinates, String facing) {
+        return ConfigSnapshot.parse(true, "survival_cities", "lostcities:lostcity", List.of(), true,
+                "lostcities:lostcity", coordinates, facing,
+                AutoloaderConfigSimple.SpawnTeleportPolicy.FIRST_JOIN, 200,
+                AutoloaderConfigSimple.SpawnTimeoutAction.TELEPORT, 0, 10, 4);
+    }
+}
@@ -0,0 +1,59 @@
+package com.lostcitiesautoloader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patching the dimension profiles in a copy of Lost Cities' common.toml
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TomlPatchBenchmark {
+    private static final Map<String, String> CURRENT = Map.of("lostcities:lostcity", "default");
+    private static final Map<String, String> CHANGED = Map.of("lostcities:lostcity", "ancient");
+
+    private Path directory;
+    private Path config;
+    private boolean alternate;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("autoloader-toml");
+        config = BenchmarkFiles.write(directory, "common.toml", BenchmarkFiles.COMMON_TOML);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkFiles.delete(directory);
+    }
+
+    /**
+     * The file already holds the profiles - read and compare only
+     */
+    @Benchmark
+    public LostCitiesTomlPatcher.Result patchUnchanged() throws IOException {
+        return LostCitiesTomlPatcher.patchDimensionProfiles(config, CURRENT);
+    }
+
+    /**
+     * Every patch changes a profile, so the file is rewritten each time
+     */
+    @Benchmark
+    public LostCitiesTomlPatcher.Result patchChanged() throws IOException {
+        alternate = !alternate;
+        return LostCitiesTomlPatcher.patchDimensionProfiles(config, alternate ? CHANGED : CURRENT);
+    }
+}
@@ -0,0 +1,239 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.server.ServerLifecycleHooks;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Remembers in the world save which Lost Cities configuration was last applied to it
+ *
+ * The state covers each dimension's profile and the hash of the preset it came from. It
+ * is read straight from the save file at ServerAboutToStart - before the overworld and
+ * its data storage exist - so the first apply can compare against it. On a match, and if
+ * Lost Cities' config file still has the size and modification time recorded with it (it
+ * is shared by every world of the instance), the file is known to be current and is not
+ * touched. On a mismatch a warning explains that already generated chunks keep their old
+ * layout. New state is written through the overworld's saved data once it exists.
+ */
+@EventBusSubscriber(modid = LostCitiesAutoloaderMod.MODID)
+public class AppliedStateData extends SavedData {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String DATA_NAME = LostCitiesAutoloaderMod.MODID + "_applied_state";
+    private static final String FINGERPRINT_TAG = "fingerprint";
+    private static final String SUMMARY_TAG = "summary";
+    private static final String CONFIG_STAMP_TAG = "config_stamp";
+
+    /**
+     * An applied configuration
+     *
+     * @param summary     human readable dimension=profile list, for log messages
+     * @param configStamp size and modification time of Lost Cities' config file after the apply
+     */
+    public record State(String fingerprint, String summary, String configStamp) {
+    }
+
+    // State found in the save at startup, null if the world has none
+    private static volatile State worldState = null;
+    // State applied before the overworld existed, written once the server has started
+    private static volatile State pendingState = null;
+    private static volatile boolean mismatchReported = false;
+
+    private State state;
+
+    private AppliedStateData(State state) {
+        this.state = state;
+    }
+
+    private static AppliedStateData create() {
+        return new AppliedStateData(null);
+    }
+
+    private static AppliedStateData load(CompoundTag tag, HolderLookup.Provider registries) {
+        return new AppliedStateData(readState(tag));
+    }
+
+    private static AppliedStateData get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(
+                new SavedData.Factory<>(AppliedStateData::create, AppliedStateData::load, null), DATA_NAME);
+    }
+
+    /**
+     * Read the stored state from the world save. Called at ServerAboutToStart.
+     */
+    public static void readFromWorld(MinecraftServer server) {
+        forget();
+
+        Path file = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(DATA_NAME + ".dat");
+        if (!Files.exists(file)) {
+            LOGGER.debug("No applied Lost Cities configuration recorded in this world");
+            return;
+        }
+        try {
+            // Saved data files wrap the actual data in a "data" compound
+            CompoundTag root = NbtIo.readCompressed(file, NbtAccounter.unlimitedHeap());
+            worldState = readState(root.getCompound("data"));
+            LOGGER.debug("World was last generated with: {}", worldState == null ? "unknown" : worldState.summary());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read applied Lost Cities configuration from the world save: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Forget the state of the previous world
+     */
+    static void forget() {
+        worldState = null;
+        pendingState = null;
+        mismatchReported = false;
+    }
+
+    /**
+     * Describe the configuration an apply is about to write
+     */
+    public static State describe(List<AutoloaderProfileManager.DimensionPreset> presets) {
+        MessageDigest digest = ProfileApplyEngine.newDigest();
+        StringJoiner summary = new StringJoiner(", ");
+        for (AutoloaderProfileManager.DimensionPreset dimensionPreset : presets) {
+            PresetCache.Preset preset = dimensionPreset.preset();
+            String profile = preset == null ? "default" : preset.profileName();
+            String hash = preset == null ? "" : preset.contentHash();
+            digest.update((dimensionPreset.dimension() + "\n" + profile + "\n" + hash + "\n").getBytes(StandardCharsets.UTF_8));
+            summary.add(dimensionPreset.dimension() + "=" + profile);
+        }
+        return new State(HexFormat.of().formatHex(digest.digest()), summary.toString(), null);
+    }
+
+    /**
+     * Compare a configuration with the one recorded in the world, warning once per server start if they differ
+     *
+     * @return true if the world was last generated with exactly this configuration
+     */
+    public static boolean matchesWorld(State state) {
+        State recorded = worldState;
+        if (recorded == null) {
+            return false;
+        }
+        if (recorded.fingerprint().equals(state.fingerprint())) {
+            return true;
+        }
+        if (!mismatchReported) {
+            mismatchReported = true;
+            LOGGER.warn("============================================================");
+            LOGGER.warn("Lost Cities configuration differs from the one this world was generated with");
+            LOGGER.warn("  World:  {}", recorded.summary());
+            LOGGER.warn("  Now:    {}", state.summary());
+            LOGGER.warn("Chunks that already exist keep their layout - only new chunks use the new configuration");
+            LOGGER.warn("============================================================");
+        }
+        return false;
+    }
+
+    /**
+     * Check whether Lost Cities' config file is unchanged since this configuration was recorded for the world
+     */
+    public static boolean isConfigFileCurrent(State state) {
+        State recorded = worldState;
+        return recorded != null && recorded.fingerprint().equals(state.fingerprint())
+                && recorded.configStamp() != null && recorded.configStamp().equals(configStamp());
+    }
+
+    /**
+     * Record a successful apply in the world save
+     */
+    public static void record(State applied) {
+        record(applied, configStamp());
+    }
+
+    /**
+     * Record a successful apply in the world save, with Lost Cities' config file stamp taken
+     * right after it was patched
+     *
+     * @param configStamp the stamp, or null if the config file could not be patched
+     */
+    public static void record(State applied, String configStamp) {
+        State state = new State(applied.fingerprint(), applied.summary(), configStamp);
+        worldState = state;
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null || server.overworld() == null) {
+            pendingState = state;
+            return;
+        }
+        get(server).update(state);
+    }
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        State state = pendingState;
+        if (state != null) {
+            pendingState = null;
+            get(event.getServer()).update(state);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        worldState = null;
+        pendingState = null;
+        mismatchReported = false;
+    }
+
+    private void update(State state) {
+        if (!state.equals(this.state)) {
+            this.state = state;
+            setDirty();
+        }
+    }
+
+    private static State readState(CompoundTag tag) {
+        if (tag == null || !tag.contains(FINGERPRINT_TAG)) {
+            return null;
+        }
+        return new State(tag.getString(FINGERPRINT_TAG), tag.getString(SUMMARY_TAG),
+                tag.contains(CONFIG_STAMP_TAG) ? tag.getString(CONFIG_STAMP_TAG) : null);
+    }
+
+    /**
+     * Size and modification time of Lost Cities' config file, or null if it cannot be read
+     */
+    static String configStamp() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(LostCitiesTomlPatcher.commonConfig(), BasicFileAttributes.class);
+            return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        if (state != null) {
+            tag.putString(FINGERPRINT_TAG, state.fingerprint());
+            tag.putString(SUMMARY_TAG, state.summary());
+            if (state.configStamp() != null) {
+                tag.putString(CONFIG_STAMP_TAG, state.configStamp());
+            }
+        }
+        return tag;
+    }
+}
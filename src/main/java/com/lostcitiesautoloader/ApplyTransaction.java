@@ -0,0 +1,207 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Collects every change one apply makes to Lost Cities and commits them together
+ *
+ * On commit the intended values are diffed against Lost Cities' current state and only
+ * the members that differ are written. The dimension profiles go to the TOML file in a
+ * single change-only patch. Lost Cities' caches are refreshed once at the end, and only
+ * if something in memory actually changed.
+ *
+ * World generation threads read these members without locking, so commits are serialized
+ * and the writes are ordered for them: the settings JSON is published before the profile
+ * that uses it, the dimension list is swapped for a fresh copy instead of being mutated in
+ * place, and a fence separates each write from the next and the last one from the cache
+ * refresh that tells Lost Cities to re-read them.
+ */
+public class ApplyTransaction {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // Lost Cities takes the overworld profile from profileFromClient, not dimensionsWithProfiles
+    private static final String OVERWORLD = "minecraft:overworld";
+
+    private static final Object COMMIT_LOCK = new Object();
+
+    private String profile;
+    private String json;
+    private final Map<String, String> dimensionProfiles = new LinkedHashMap<>();
+    private boolean configFileCurrent = false;
+
+    /**
+     * What a commit changed
+     *
+     * @param liveChanges number of in-memory Lost Cities members written
+     * @param tomlResult  outcome of the TOML patch, or null if it was not attempted or failed
+     * @param refreshed   whether Lost Cities' caches were refreshed
+     */
+    public record Result(int liveChanges, LostCitiesTomlPatcher.Result tomlResult, boolean refreshed) {
+    }
+
+    /**
+     * Set the profile Lost Cities generates with
+     */
+    public ApplyTransaction setProfile(String profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    /**
+     * Set the custom settings JSON Lost Cities generates with
+     */
+    public ApplyTransaction setJson(String json) {
+        this.json = json;
+        return this;
+    }
+
+    /**
+     * Generate the given profile in the given dimension, both in memory and in Lost Cities' TOML
+     */
+    public ApplyTransaction putDimensionProfile(String dimension, String profile) {
+        dimensionProfiles.put(dimension, profile);
+        return this;
+    }
+
+    /**
+     * Skip the TOML patch because the file is known to already hold these dimension profiles
+     */
+    public ApplyTransaction assumeConfigFileCurrent() {
+        this.configFileCurrent = true;
+        return this;
+    }
+
+    /**
+     * Write the delta against Lost Cities' current state and refresh once if needed
+     */
+    public Result commit() {
+        synchronized (COMMIT_LOCK) {
+            return commitLocked();
+        }
+    }
+
+    private Result commitLocked() {
+        int liveChanges = 0;
+        AutoloaderEvents.ReflectiveApply applyEvent = new AutoloaderEvents.ReflectiveApply();
+        applyEvent.begin();
+
+        // JSON first - a reader that sees the new profile must not pair it with the old settings
+        if (json != null && !json.equals(LostCitiesBridge.getJsonFromClient())) {
+            LostCitiesBridge.setJsonFromClient(json);
+            VarHandle.releaseFence();
+            liveChanges++;
+        }
+        if (profile != null && !profile.equals(LostCitiesBridge.getProfileFromClient())) {
+            LostCitiesBridge.setProfileFromClient(profile);
+            VarHandle.releaseFence();
+            liveChanges++;
+        }
+        liveChanges += updateLiveDimensionProfiles();
+        // Only build the event's strings while a recording wants it
+        if (applyEvent.shouldCommit()) {
+            applyEvent.profile = profile;
+            applyEvent.dimensions = dimensionProfiles.toString();
+            applyEvent.liveChanges = liveChanges;
+            applyEvent.commit();
+        }
+        AutoloaderDiagnostics.record("commit", "{} live change(s) written: profile {}, dimensions {}",
+                                     liveChanges, profile, dimensionProfiles);
+
+        LostCitiesTomlPatcher.Result tomlResult;
+        if (dimensionProfiles.isEmpty()) {
+            tomlResult = null;
+        } else if (configFileCurrent) {
+            tomlResult = LostCitiesTomlPatcher.Result.UNCHANGED;
+        } else {
+            tomlResult = DimensionManager.updateLostCitiesDimensionConfig(dimensionProfiles);
+        }
+
+        boolean refreshed = liveChanges > 0;
+        if (refreshed) {
+            // Every write above must be visible before Lost Cities rebuilds from them
+            VarHandle.fullFence();
+            LostCitiesBridge.refreshCaches();
+        }
+
+        Result result = new Result(liveChanges, tomlResult, refreshed);
+        String tomlState = dimensionProfiles.isEmpty() ? "untouched"
+                : tomlResult == null ? "failed" : tomlResult.name().toLowerCase();
+        // The one line an apply logs - the detail is in AutoloaderDiagnostics
+        LOGGER.info("Lost Cities apply committed: profile {}, dimensions {}, {} live change(s), config file {}, caches {}",
+                   profile, dimensionProfiles.keySet(), liveChanges, tomlState, refreshed ? "refreshed" : "left as is");
+        return result;
+    }
+
+    private int updateLiveDimensionProfiles() {
+        if (dimensionProfiles.isEmpty()) {
+            return 0;
+        }
+        if (!LostCitiesBridge.has(LostCitiesBridge.Capability.DIMENSIONS_WITH_PROFILES)) {
+            LOGGER.warn("Lost Cities dimensionsWithProfiles field not found - dimension configuration not applied");
+            return 0;
+        }
+        List<String> current = LostCitiesBridge.getDimensionsWithProfiles();
+        if (current == null) {
+            return 0;
+        }
+        // Work on a copy so readers never see the list mid-mutation
+        List<String> entries = new ArrayList<>(current);
+
+        // Index the existing entries once instead of scanning per dimension
+        Map<String, Integer> indexByDimension = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            String entry = entries.get(i);
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                indexByDimension.putIfAbsent(entry.substring(0, separator).trim(), i);
+            }
+        }
+
+        int changes = 0;
+        for (Map.Entry<String, String> dimensionProfile : dimensionProfiles.entrySet()) {
+            String dimension = dimensionProfile.getKey();
+            if (OVERWORLD.equals(dimension)) {
+                continue;
+            }
+            String entry = dimension + "=" + dimensionProfile.getValue();
+            Integer index = indexByDimension.get(dimension);
+            if (index == null) {
+                entries.add(entry);
+                changes++;
+            } else if (!Objects.equals(entries.get(index), entry)) {
+                entries.set(index, entry);
+                changes++;
+            }
+        }
+        if (changes == 0) {
+            return 0;
+        }
+
+        if (LostCitiesBridge.canReplaceDimensionsWithProfiles()) {
+            // The list is fully built before the reference to it is published
+            VarHandle.releaseFence();
+            LostCitiesBridge.setDimensionsWithProfiles(entries);
+        } else {
+            // Final field - touch only the changed slots so no reader ever sees an emptied list
+            AutoloaderDiagnostics.record("commit", "Lost Cities dimensionsWithProfiles is final - updating it in place");
+            int existing = current.size();
+            for (int i = 0; i < existing; i++) {
+                if (!Objects.equals(current.get(i), entries.get(i))) {
+                    current.set(i, entries.get(i));
+                }
+            }
+            current.addAll(entries.subList(existing, entries.size()));
+        }
+        AutoloaderDiagnostics.record("commit", "Lost Cities dimensions with profiles: {}", entries);
+        return changes;
+    }
+}
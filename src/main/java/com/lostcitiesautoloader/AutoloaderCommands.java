@@ -0,0 +1,32 @@
+package com.lostcitiesautoloader;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+/**
+ * Server commands of the autoloader, available to operators only
+ *
+ * {@code /lostcitiesautoloader diagnostics} writes the {@link AutoloaderDiagnostics} buffer
+ * to the server log.
+ */
+@EventBusSubscriber(modid = LostCitiesAutoloaderMod.MODID)
+public class AutoloaderCommands {
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(LostCitiesAutoloaderMod.MODID)
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("diagnostics")
+                        .executes(context -> dumpDiagnostics(context.getSource()))));
+    }
+
+    private static int dumpDiagnostics(CommandSourceStack source) {
+        int written = AutoloaderDiagnostics.dump("requested by " + source.getTextName());
+        source.sendSuccess(() -> Component.literal("Wrote " + written + " autoloader diagnostic record(s) to the server log"), true);
+        return written;
+    }
+}
@@ -2,6 +2,8 @@ package com.lostcitiesautoloader;
 
 import net.neoforged.neoforge.common.ModConfigSpec;
 
+import java.util.List;
+
 public class AutoloaderConfigSimple {
     
     public static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
@@ -11,10 +13,22 @@ public class AutoloaderConfigSimple {
     public static final ModConfigSpec.BooleanValue ENABLE_AUTOLOADER;
     public static final ModConfigSpec.ConfigValue<String> CONFIG_FILE_NAME;
     public static final ModConfigSpec.ConfigValue<String> LOST_CITY_DIMENSION;
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> DIMENSION_PRESETS;
     public static final ModConfigSpec.BooleanValue ENABLE_CUSTOM_SPAWN;
     public static final ModConfigSpec.ConfigValue<String> PLAYER_SPAWN_DIMENSION;
     public static final ModConfigSpec.ConfigValue<String> PLAYER_SPAWN_COORDINATES;
     public static final ModConfigSpec.ConfigValue<String> PLAYER_SPAWN_FACING;
+    public static final ModConfigSpec.EnumValue<SpawnTeleportPolicy> SPAWN_TELEPORT_POLICY;
+    public static final ModConfigSpec.IntValue SPAWN_CHUNK_TIMEOUT_TICKS;
+    public static final ModConfigSpec.EnumValue<SpawnTimeoutAction> SPAWN_CHUNK_TIMEOUT_ACTION;
+    public static final ModConfigSpec.IntValue SPAWN_KEEP_LOADED_RADIUS;
+    public static final ModConfigSpec.IntValue TELEPORT_TICK_BUDGET_MS;
+    public static final ModConfigSpec.IntValue TELEPORT_MAX_PER_TICK;
+    public static final ModConfigSpec.BooleanValue ENABLE_HOT_RELOAD;
+    public static final ModConfigSpec.IntValue HOT_RELOAD_QUIET_WINDOW_MS;
+    public static final ModConfigSpec.IntValue METRICS_HTTP_PORT;
+    public static final ModConfigSpec.ConfigValue<String> METRICS_TEXTFILE;
+    public static final ModConfigSpec.IntValue METRICS_TEXTFILE_INTERVAL_SECONDS;
     
     static {
         BUILDER.comment("Lost Cities Autoloader Configuration");
@@ -33,6 +47,13 @@ public class AutoloaderConfigSimple {
                     "Or specify a custom dimension like 'lostcities:lostcity'")
             .define("lost_city_dimension", "minecraft:overworld");
             
+        DIMENSION_PRESETS = BUILDER
+            .comment("Additional dimensions where Lost Cities should generate, each with its own preset",
+                    "Entries are 'dimension=preset', e.g. 'minecraft:the_nether=nether_ruins' loads nether_ruins.json",
+                    "Only the preset's profile is used - custom settings come from config_file_name alone")
+            .defineListAllowEmpty("dimension_presets", List.of(), () -> "",
+                    entry -> entry instanceof String value && value.indexOf('=') > 0);
+            
         ENABLE_CUSTOM_SPAWN = BUILDER
             .comment("Enable custom player spawn dimension (separate from Lost Cities dimension)")
             .define("enable_custom_spawn", false);
@@ -56,7 +77,76 @@ public class AutoloaderConfigSimple {
                     "Leave empty or comment out to use default spawn facing",
                     "Only used if enable_custom_spawn is true")
             .define("player_spawn_facing", "");
+            
+        SPAWN_TELEPORT_POLICY = BUILDER
+            .comment("When players are teleported to the custom spawn",
+                    "ALWAYS teleports on every login, FIRST_JOIN only the first time a player joins the world,",
+                    "FIRST_JOIN_OR_NO_BED also after a death when the player has no respawn point",
+                    "Only used if enable_custom_spawn is true")
+            .defineEnum("spawn_teleport_policy", SpawnTeleportPolicy.FIRST_JOIN);
+            
+        SPAWN_CHUNK_TIMEOUT_TICKS = BUILDER
+            .comment("How many ticks to wait for the spawn chunk to load in the background before teleporting a player",
+                    "Only used if enable_custom_spawn is true")
+            .defineInRange("spawn_chunk_timeout_ticks", 200, 1, 6000);
+            
+        SPAWN_CHUNK_TIMEOUT_ACTION = BUILDER
+            .comment("What to do if the spawn chunk is not loaded within spawn_chunk_timeout_ticks",
+                    "TELEPORT teleports anyway (the chunk is then loaded synchronously), STAY leaves the player where they are",
+                    "Only used if enable_custom_spawn is true")
+            .defineEnum("spawn_chunk_timeout_action", SpawnTimeoutAction.TELEPORT);
+            
+        SPAWN_KEEP_LOADED_RADIUS = BUILDER
+            .comment("Radius (in chunks) around the custom spawn that is kept loaded while the server runs",
+                    "0 disables it. Each step adds a ring of loaded chunks - the server log reports the total",
+                    "Only used if enable_custom_spawn is true")
+            .defineInRange("spawn_keep_loaded_radius", 0, 0, 16);
+            
+        TELEPORT_TICK_BUDGET_MS = BUILDER
+            .comment("Milliseconds per tick that custom spawn teleports may use; further teleports wait for the next tick",
+                    "At least one teleport runs every tick. Only used if enable_custom_spawn is true")
+            .defineInRange("teleport_tick_budget_ms", 5, 1, 50);
+            
+        TELEPORT_MAX_PER_TICK = BUILDER
+            .comment("Maximum number of custom spawn teleports per tick",
+                    "Only used if enable_custom_spawn is true")
+            .defineInRange("teleport_max_per_tick", 8, 1, 100);
+            
+        ENABLE_HOT_RELOAD = BUILDER
+            .comment("Re-apply the selected preset when files in config/lost_cities_autoloader/ or this config file change",
+                    "Only affects chunks generated after the reload")
+            .define("enable_hot_reload", true);
+            
+        HOT_RELOAD_QUIET_WINDOW_MS = BUILDER
+            .comment("How long (in milliseconds) the preset files must be left alone before a hot reload runs",
+                    "Editors that save through a temp file produce several events per save; they are merged into one reload")
+            .defineInRange("hot_reload_quiet_window_ms", 500, 50, 10000);
+            
+        METRICS_HTTP_PORT = BUILDER
+            .comment("Port for a Prometheus metrics endpoint at /metrics, bound to 127.0.0.1 only",
+                    "0 disables it. Takes effect at the next server start")
+            .defineInRange("metrics_http_port", 0, 0, 65535);
+            
+        METRICS_TEXTFILE = BUILDER
+            .comment("File the metrics are written to in the Prometheus text format, for the node exporter's textfile collector",
+                    "Example: '/var/lib/node_exporter/textfile/lostcities_autoloader.prom'. Leave empty to disable")
+            .define("metrics_textfile", "");
+            
+        METRICS_TEXTFILE_INTERVAL_SECONDS = BUILDER
+            .comment("How often (in seconds) metrics_textfile is rewritten")
+            .defineInRange("metrics_textfile_interval_seconds", 15, 1, 3600);
         
         SPEC = BUILDER.build();
     }
+    
+    public enum SpawnTeleportPolicy {
+        ALWAYS,
+        FIRST_JOIN,
+        FIRST_JOIN_OR_NO_BED
+    }
+    
+    public enum SpawnTimeoutAction {
+        TELEPORT,
+        STAY
+    }
 }
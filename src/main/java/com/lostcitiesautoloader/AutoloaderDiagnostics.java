@@ -0,0 +1,100 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size in-memory trace of what the autoloader did, dumped to the log when needed
+ *
+ * The detail that used to be logged at INFO on every apply - available profiles, settings
+ * JSON, which presets a reload picked up - is recorded here instead. Recording claims a slot
+ * with one atomic increment and stores the message pattern and its arguments as they are;
+ * nothing is formatted or written until a dump, so normal operation costs next to nothing.
+ * The oldest records are overwritten once the buffer is full. A dump happens automatically
+ * when an apply fails, and on demand with {@code /lostcitiesautoloader diagnostics}.
+ */
+public class AutoloaderDiagnostics {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int CAPACITY = 1024;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final AtomicReferenceArray<Entry> SLOTS = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    /**
+     * One diagnostic record, with its message still unformatted
+     *
+     * @param phase   the part of the autoloader that recorded it, e.g. "apply" or "reload"
+     * @param message an SLF4J-style pattern with {} placeholders for the arguments
+     */
+    private record Entry(long sequence, long timeMillis, String thread, String phase, String message, Object[] args) {
+    }
+
+    /**
+     * Record a diagnostic message. Arguments are kept as references and only rendered by a
+     * dump, so pass values that are not mutated afterwards.
+     */
+    public static void record(String phase, String message, Object... args) {
+        long sequence = NEXT.getAndIncrement();
+        int slot = (int) (sequence % CAPACITY);
+        Entry entry = new Entry(sequence, System.currentTimeMillis(), Thread.currentThread().getName(), phase, message, args);
+        // A writer delayed by a full lap must not replace the newer record already in its slot
+        Entry previous = SLOTS.get(slot);
+        while ((previous == null || previous.sequence() < sequence) && !SLOTS.compareAndSet(slot, previous, entry)) {
+            previous = SLOTS.get(slot);
+        }
+    }
+
+    /**
+     * The frames that led to the caller, for recording who triggered something. Walks the
+     * stack, so keep it off hot paths.
+     */
+    public static List<String> callers(int limit) {
+        // Skip this method and the caller itself
+        return StackWalker.getInstance().walk(frames ->
+                frames.skip(2).limit(limit).map(StackWalker.StackFrame::toString).toList());
+    }
+
+    /**
+     * Write every record still in the buffer to the log, oldest first, as a single log event
+     *
+     * @param reason why the dump was taken, shown in its header
+     * @return the number of records written
+     */
+    public static int dump(String reason) {
+        long end = NEXT.get();
+        long start = Math.max(0, end - CAPACITY);
+        StringBuilder out = new StringBuilder(256);
+        int written = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            Entry entry = SLOTS.get((int) (sequence % CAPACITY));
+            // Overwritten by a newer record while dumping, or claimed but not yet stored
+            if (entry == null || entry.sequence() != sequence) {
+                continue;
+            }
+            out.append('\n').append(format(entry));
+            written++;
+        }
+        LOGGER.warn("Autoloader diagnostics ({}): {} record(s), {} older record(s) overwritten{}",
+                   reason, written, start, out);
+        return written;
+    }
+
+    private static String format(Entry entry) {
+        FormattingTuple tuple = MessageFormatter.arrayFormat(entry.message(), entry.args());
+        String line = String.format("  #%d %s [%s] %s: %s", entry.sequence(),
+                TIME.format(Instant.ofEpochMilli(entry.timeMillis())), entry.thread(), entry.phase(), tuple.getMessage());
+        Throwable throwable = tuple.getThrowable();
+        return throwable == null ? line : line + " (" + throwable + ")";
+    }
+}
@@ -0,0 +1,133 @@
+package com.lostcitiesautoloader;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for each autoloader phase
+ *
+ * Start the server with {@code -XX:StartFlightRecording} and the recording shows how long
+ * each phase took and what it worked on, under the "Lost Cities Autoloader" category.
+ * Without a recording the events are never committed, and creating them costs next to
+ * nothing - as long as callers only fill in fields that need building, such as strings,
+ * once {@code shouldCommit()} or {@code isEnabled()} says a recording wants the event.
+ */
+public final class AutoloaderEvents {
+    private static final String CATEGORY = "Lost Cities Autoloader";
+
+    private AutoloaderEvents() {
+    }
+
+    @Name("lostcitiesautoloader.ReadinessWait")
+    @Label("Readiness Wait")
+    @Category(CATEGORY)
+    @Description("Time until every precondition for applying held, or a thread blocked on the Lost Cities connection")
+    @StackTrace(false)
+    public static class ReadinessWait extends Event {
+        @Label("Stage")
+        @Description("The stage that ended the wait")
+        public String stage;
+
+        @Label("Blocking")
+        @Description("Whether a thread was blocked for the whole wait")
+        public boolean blocking;
+    }
+
+    @Name("lostcitiesautoloader.PresetRead")
+    @Label("Preset Read")
+    @Category(CATEGORY)
+    @Description("A preset read and parsed from a file or bundle")
+    @StackTrace(false)
+    public static class PresetRead extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Profile")
+        public String profile;
+
+        @Label("Bytes Read")
+        @DataAmount
+        public long bytesRead;
+    }
+
+    @Name("lostcitiesautoloader.ReflectiveApply")
+    @Label("Reflective Apply")
+    @Category(CATEGORY)
+    @Description("Lost Cities' in-memory profile, settings and dimension list written through reflection")
+    @StackTrace(false)
+    public static class ReflectiveApply extends Event {
+        @Label("Profile")
+        public String profile;
+
+        @Label("Dimensions")
+        @Description("The dimension=profile entries applied")
+        public String dimensions;
+
+        @Label("Live Changes")
+        public int liveChanges;
+    }
+
+    @Name("lostcitiesautoloader.CacheRefresh")
+    @Label("Lost Cities Cache Refresh")
+    @Category(CATEGORY)
+    @Description("Lost Cities' profile cache reset and dimension info invalidated")
+    @StackTrace(false)
+    public static class CacheRefresh extends Event {
+        @Label("Profile Cache Reset")
+        public boolean profileCacheReset;
+
+        @Label("Dimension Info Invalidated")
+        public boolean dimensionInfoInvalidated;
+    }
+
+    @Name("lostcitiesautoloader.TomlRewrite")
+    @Label("TOML Rewrite")
+    @Category(CATEGORY)
+    @Description("Lost Cities' common.toml checked and, if needed, rewritten with the dimension profiles")
+    @StackTrace(false)
+    public static class TomlRewrite extends Event {
+        @Label("Dimensions")
+        public String dimensions;
+
+        @Label("Result")
+        public String result;
+
+        @Label("Bytes Read")
+        @DataAmount
+        public long bytesRead;
+
+        @Label("Bytes Written")
+        @DataAmount
+        public long bytesWritten;
+    }
+
+    @Name("lostcitiesautoloader.SpawnTeleport")
+    @Label("Spawn Teleport")
+    @Category(CATEGORY)
+    @Description("A player's custom spawn, from login until the teleport ran, including the chunk and queue wait")
+    @StackTrace(false)
+    public static class SpawnTeleport extends Event {
+        @Label("Player")
+        public String player;
+
+        @Label("Dimension")
+        public String dimension;
+
+        @Label("Chunk Already Loaded")
+        @Description("Whether the spawn chunk was loaded before the player logged in")
+        public boolean chunkAlreadyLoaded;
+
+        @Label("Chunk Ready")
+        @Description("Whether the spawn chunk was loaded when the teleport ran")
+        public boolean chunkReady;
+
+        @Label("Outcome")
+        @Description("teleported, failed, stayed, already_there or disconnected")
+        public String outcome;
+    }
+}
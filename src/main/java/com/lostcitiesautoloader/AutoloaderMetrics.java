@@ -0,0 +1,119 @@
+package com.lostcitiesautoloader;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the autoloader, rendered in the Prometheus text format
+ *
+ * Everything is recorded with {@link LongAdder}s, so the apply, login and tick paths never
+ * contend on a lock or allocate to record a value. Histograms use fixed log-linear buckets
+ * (1, 2.5 and 5 per decade, 10 µs to 100 s) - coarse, but mergeable across every server of
+ * a fleet, which per-server percentiles are not. {@link MetricsExporter} publishes the
+ * rendered text from its own threads, so rendering only reads adders and volatile snapshots.
+ */
+public class AutoloaderMetrics {
+    private static final String PREFIX = "lostcitiesautoloader_";
+
+    public static final LongAdder APPLIES_ATTEMPTED = new LongAdder();
+    public static final LongAdder APPLIES_SKIPPED = new LongAdder();
+    public static final LongAdder APPLIES_FAILED = new LongAdder();
+    public static final Histogram APPLY_LATENCY = new Histogram();
+
+    public static final LongAdder PRESET_CACHE_HITS = new LongAdder();
+    public static final LongAdder PRESET_CACHE_MISSES = new LongAdder();
+
+    public static final LongAdder TELEPORTS_QUEUED = new LongAdder();
+    public static final LongAdder TELEPORTS_PERFORMED = new LongAdder();
+    public static final Histogram TELEPORT_QUEUE_WAIT = new Histogram();
+    public static final Histogram SPAWN_CHUNK_WAIT = new Histogram();
+
+    /**
+     * A latency histogram with cumulative buckets, recorded in nanoseconds and exported in seconds
+     */
+    public static class Histogram {
+        private static final long[] BOUNDS_NANOS = bounds();
+
+        private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+        private final LongAdder sumNanos = new LongAdder();
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long nanos) {
+            int index = Arrays.binarySearch(BOUNDS_NANOS, nanos);
+            // An exact match belongs in that bucket (le is inclusive), otherwise the next larger bound's
+            buckets[index >= 0 ? index : -index - 1].increment();
+            sumNanos.add(nanos);
+        }
+
+        private static long[] bounds() {
+            List<Long> bounds = new ArrayList<>();
+            for (long decade = 10_000L; decade <= 100_000_000_000L; decade *= 10) {
+                bounds.add(decade);
+                if (decade < 100_000_000_000L) {
+                    bounds.add(decade * 5 / 2);
+                    bounds.add(decade * 5);
+                }
+            }
+            return bounds.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format
+     */
+    public static String render() {
+        StringBuilder out = new StringBuilder(4096);
+        counter(out, "applies_attempted_total", "Applies of the autoloader configuration that were started", APPLIES_ATTEMPTED);
+        counter(out, "applies_skipped_total", "Applies skipped because nothing changed since the last one", APPLIES_SKIPPED);
+        counter(out, "applies_failed_total", "Applies that failed to write to Lost Cities", APPLIES_FAILED);
+        histogram(out, "apply_duration_seconds", "Time to apply the configuration to Lost Cities, skipped applies excluded", APPLY_LATENCY);
+        counter(out, "preset_cache_hits_total", "Preset file lookups served from the preset cache", PRESET_CACHE_HITS);
+        counter(out, "preset_cache_misses_total", "Preset file lookups that read and parsed the file", PRESET_CACHE_MISSES);
+        counter(out, "teleports_queued_total", "Custom spawn teleports queued", TELEPORTS_QUEUED);
+        counter(out, "teleports_performed_total", "Custom spawn teleports performed", TELEPORTS_PERFORMED);
+        histogram(out, "teleport_queue_wait_seconds", "Time custom spawn teleports spent in the teleport queue", TELEPORT_QUEUE_WAIT);
+        histogram(out, "spawn_chunk_wait_seconds", "Time from a custom spawn login until its spawn chunk was loaded or timed out", SPAWN_CHUNK_WAIT);
+        gauge(out, "teleport_queue_depth", "Custom spawn teleports waiting in the queue", TeleportScheduler.getQueueDepth());
+        gauge(out, "spawn_chunks_pending", "Spawn chunks being loaded in the background", SpawnChunkLoader.getPendingChunkCount());
+        return out.toString();
+    }
+
+    private static void counter(StringBuilder out, String name, String help, LongAdder value) {
+        header(out, name, help, "counter");
+        out.append(PREFIX).append(name).append(' ').append(value.sum()).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "gauge");
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String help, Histogram histogram) {
+        header(out, name, help, "histogram");
+        long cumulative = 0;
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            cumulative += histogram.buckets[i].sum();
+            String bound = i < Histogram.BOUNDS_NANOS.length ? seconds(Histogram.BOUNDS_NANOS[i]) : "+Inf";
+            out.append(PREFIX).append(name).append("_bucket{le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+        }
+        out.append(PREFIX).append(name).append("_sum ").append(seconds(histogram.sumNanos.sum())).append('\n');
+        out.append(PREFIX).append(name).append("_count ").append(cumulative).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+}
@@ -1,17 +1,15 @@
 package com.lostcitiesautoloader;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.mojang.logging.LogUtils;
-import net.neoforged.fml.ModList;
 import org.slf4j.Logger;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,239 +17,276 @@ import java.util.Map;
  */
 public class AutoloaderProfileManager {
     private static final Logger LOGGER = LogUtils.getLogger();
-    private static final Gson GSON = new Gson();
     
-    private static boolean lostCitiesLoaded = false;
-    private static Class<?> configClass = null;
-    private static Object profileFromClientField = null;
-    private static Object jsonFromClientField = null;
-    private static Class<?> profileSetupClass = null;
-    private static Object standardProfilesField = null;
+    public static final Path PRESET_DIRECTORY = Paths.get("config", "lost_cities_autoloader");
     
-    static {
-        checkLostCitiesAvailability();
+    // PRESET_DIRECTORY unless running without Minecraft
+    private static volatile Path presetDirectory = PRESET_DIRECTORY;
+    
+    /**
+     * A preset selected for a dimension
+     *
+     * @param preset null if the preset file does not exist or could not be loaded
+     */
+    public record DimensionPreset(String dimension, String configFileName, PresetCache.Preset preset) {
     }
     
-    private static void checkLostCitiesAvailability() {
-        lostCitiesLoaded = ModList.get().isLoaded("lostcities");
-        
-        if (lostCitiesLoaded) {
-            try {
-                // Get Lost Cities Config class
-                configClass = Class.forName("mcjty.lostcities.setup.Config");
-                
-                // Get the profile fields
-                Field profileField = configClass.getDeclaredField("profileFromClient");
-                profileField.setAccessible(true);
-                profileFromClientField = profileField;
-                
-                Field jsonField = configClass.getDeclaredField("jsonFromClient");
-                jsonField.setAccessible(true);
-                jsonFromClientField = jsonField;
-                
-                // Get ProfileSetup class
-                profileSetupClass = Class.forName("mcjty.lostcities.config.ProfileSetup");
-                Field standardField = profileSetupClass.getDeclaredField("STANDARD_PROFILES");
-                standardField.setAccessible(true);
-                standardProfilesField = standardField;
-                
-                LOGGER.info("Successfully connected to Lost Cities mod");
-                
-            } catch (Exception e) {
-                LOGGER.error("Failed to connect to Lost Cities mod", e);
-                lostCitiesLoaded = false;
-            }
-        } else {
-            LOGGER.warn("Lost Cities mod not found - autoloader will not function");
-        }
+    /**
+     * Lost Cities' config file after the config file watcher patched it for a reload
+     *
+     * @param stamp size and modification time after the patch, or null if the patch failed
+     */
+    public record PatchedConfigFile(String stamp) {
     }
     
+    /**
+     * Load the selected presets and apply them. Called by {@link ReadinessTracker} once every
+     * precondition holds, so the checks are not repeated here.
+     */
     public static void loadAndApplyConfiguration() {
-        LOGGER.info("Loading and applying Lost Cities Autoloader configuration");
+        AutoloaderDiagnostics.record("apply", "Loading and applying the autoloader configuration");
         
-        if (!lostCitiesLoaded) {
-            LOGGER.warn("Lost Cities mod not available - cannot apply autoloader configuration");
-            return;
-        }
-
-        // Check if the config spec is loaded
-        if (!AutoloaderConfigSimple.SPEC.isLoaded()) {
-            LOGGER.info("Config not loaded yet, will retry later");
-            return;
-        }
-        
-        // Check if autoloader is enabled
         try {
-            boolean enabledValue = AutoloaderConfigSimple.ENABLE_AUTOLOADER.get();
-            LOGGER.debug("Autoloader enabled: {}", enabledValue);
+            Map<String, ?> standardProfiles = LostCitiesBridge.getStandardProfiles();
             
-            if (!enabledValue) {
-                LOGGER.info("Lost Cities Autoloader is disabled in configuration");
-                return;
-            }
-        } catch (Exception e) {
-            LOGGER.warn("Config value not ready yet: {}", e.getMessage());
-            return;
-        }
-        
-        // Check if Lost Cities profiles are loaded yet
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> standardProfiles = (Map<String, Object>) ((Field)standardProfilesField).get(null);
-            if (standardProfiles == null || standardProfiles.isEmpty()) {
-                LOGGER.info("Lost Cities profiles not loaded yet, will retry later");
-                return;
-            }
-            LOGGER.debug("Lost Cities has {} profiles available", standardProfiles.size());
-        } catch (Exception e) {
-            LOGGER.warn("Cannot access Lost Cities profiles yet: {}", e.getMessage());
-            return;
-        }
-
-        try {
-            Path configDir = Paths.get("config", "lost_cities_autoloader");
+            Path configDir = getPresetDirectory();
             if (!Files.exists(configDir)) {
                 LOGGER.info("No autoloader configuration directory found - no profile will be applied");
                 return;
             }
             
-            // Load the specific configuration file specified in config
-            String configFileName;
-            try {
-                configFileName = AutoloaderConfigSimple.CONFIG_FILE_NAME.get() + ".json";
-                LOGGER.debug("Using config file: {}", configFileName);
-            } catch (Exception e) {
-                LOGGER.warn("Cannot access config file name setting, using default");
-                configFileName = "survival_cities.json";
-            }
-            
-            Path configFile = configDir.resolve(configFileName);
-            
-            if (Files.exists(configFile)) {
-                LOGGER.info("Loading configuration file: {}", configFileName);
-                loadConfigurationFile(configFile);
+            // Warm restarts read the resolved presets back in one go instead of resolving them
+            Map<String, String> selection = selectPresetFiles();
+            List<DimensionPreset> presets = CompiledPresetCache.load(selection, standardProfiles.keySet());
+            if (presets == null) {
+                PresetRegistry.validate(standardProfiles);
+                presets = resolvePresets(selection);
+                CompiledPresetCache.store(selection, standardProfiles.keySet(), presets);
             } else {
-                LOGGER.warn("Configuration file not found: {} - no profile will be applied", configFileName);
+                AutoloaderDiagnostics.record("apply", "Selected presets read from the compiled preset cache: {}", selection);
             }
-            
-            // Apply dimension configuration
-            applyDimensionConfiguration();
+            applyConfiguration(presets, standardProfiles);
                     
         } catch (Exception e) {
             LOGGER.error("Failed to load autoloader configuration", e);
+            AutoloaderDiagnostics.dump("load failed");
         }
     }
     
-    private static void applyDimensionConfiguration() {
+    /**
+     * Patch Lost Cities' config file with the dimension profiles of reloaded presets. This is
+     * the file I/O of an apply, so the config file watcher runs it on its own thread and hands
+     * only the in-memory part to the server thread.
+     */
+    public static PatchedConfigFile patchConfigFile(List<DimensionPreset> presets) {
+        Map<String, String> dimensionProfiles = selectDimensionProfiles(presets, LostCitiesBridge.getStandardProfiles());
+        if (!dimensionProfiles.isEmpty()
+                && DimensionManager.updateLostCitiesDimensionConfig(dimensionProfiles) == null) {
+            return new PatchedConfigFile(null);
+        }
+        return new PatchedConfigFile(AppliedStateData.configStamp());
+    }
+    
+    /**
+     * Apply presets that were already loaded, and whose config file changes were already
+     * made, off-thread by the config file watcher. Does no file I/O, so it is safe to run on
+     * the server thread.
+     */
+    public static void applyReloadedConfiguration(List<DimensionPreset> presets, PatchedConfigFile configFile) {
+        if (!ReadinessTracker.isReady()) {
+            LOGGER.debug("Autoloader not ready - reloaded configuration will be applied at the next server start");
+            return;
+        }
+        AutoloaderDiagnostics.record("reload", "Applying the reloaded autoloader configuration");
+        
         try {
-            boolean enableCustomSpawn = AutoloaderConfigSimple.ENABLE_CUSTOM_SPAWN.get();
-            String playerSpawnDimension = AutoloaderConfigSimple.PLAYER_SPAWN_DIMENSION.get();
-            String lostCityDimension = AutoloaderConfigSimple.LOST_CITY_DIMENSION.get();
-            
-            LOGGER.info("Profile Manager - Dimension configuration:");
-            LOGGER.info("  Enable custom spawn: {}", enableCustomSpawn);
-            LOGGER.info("  Player spawn dimension: {}", playerSpawnDimension);
-            LOGGER.info("  Lost city dimension: {}", lostCityDimension);
-            
-            // Delegate to DimensionManager for actual implementation
-            DimensionManager.applyDimensionConfiguration();
-            
+            applyConfiguration(presets, LostCitiesBridge.getStandardProfiles(), configFile);
         } catch (Exception e) {
-            LOGGER.error("Failed to apply dimension configuration", e);
+            LOGGER.error("Failed to apply reloaded autoloader configuration", e);
+            AutoloaderDiagnostics.dump("reload failed");
+        }
+    }
+    
+    /**
+     * Load every selected preset: config_file_name for lost_city_dimension first, then the
+     * dimension_presets entries in config order
+     */
+    public static List<DimensionPreset> resolvePresets() {
+        return resolvePresets(selectPresetFiles());
+    }
+    
+    static List<DimensionPreset> resolvePresets(Map<String, String> selection) {
+        List<DimensionPreset> presets = new ArrayList<>(selection.size());
+        for (Map.Entry<String, String> entry : selection.entrySet()) {
+            presets.add(new DimensionPreset(entry.getKey(), entry.getValue(), loadConfigurationFile(entry.getValue())));
         }
+        return presets;
+    }
+    
+    /**
+     * Preset file name selected for each dimension, primary dimension first
+     */
+    private static Map<String, String> selectPresetFiles() {
+        Map<String, String> selection = new LinkedHashMap<>();
+        selection.put(AutoloaderConfigSimple.LOST_CITY_DIMENSION.get(), getConfigFileName());
+        
+        ConfigSnapshot config = ConfigSnapshot.current();
+        if (config != null) {
+            for (Map.Entry<String, String> entry : config.dimensionPresets().entrySet()) {
+                selection.putIfAbsent(entry.getKey(), entry.getValue() + ".json");
+            }
+        }
+        return selection;
+    }
+    
+    /**
+     * Directory holding the autoloader presets
+     */
+    public static Path getPresetDirectory() {
+        return presetDirectory;
+    }
+    
+    /**
+     * Read presets from a different directory. For running the autoloader without Minecraft.
+     */
+    static void usePresetDirectory(Path directory) {
+        presetDirectory = directory;
     }
     
-    private static void loadConfigurationFile(Path configFile) {
+    /**
+     * File name of the preset selected in the mod config
+     */
+    public static String getConfigFileName() {
         try {
-            String content = Files.readString(configFile);
-            JsonObject config = JsonParser.parseString(content).getAsJsonObject();
-            
-            String profileName = config.get("profile").getAsString();
-            LOGGER.info("Loading autoloader configuration: {} -> {}", configFile.getFileName(), profileName);
-            
-            // Apply the profile to Lost Cities
-            applyProfileToLostCities(profileName, config);
-            
+            String configFileName = AutoloaderConfigSimple.CONFIG_FILE_NAME.get() + ".json";
+            LOGGER.debug("Using config file: {}", configFileName);
+            return configFileName;
         } catch (Exception e) {
-            LOGGER.error("Failed to load configuration file: {}", configFile, e);
+            LOGGER.warn("Cannot access config file name setting, using default");
+            return "survival_cities.json";
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private static void applyProfileToLostCities(String profileName, JsonObject config) {
-        try {
-            // Check if the profile exists in Lost Cities
-            Map<String, Object> standardProfiles = (Map<String, Object>) ((Field)standardProfilesField).get(null);
-            
-            LOGGER.info("Attempting to apply profile '{}' to Lost Cities", profileName);
-            LOGGER.info("Available Lost Cities profiles: {}", standardProfiles.keySet());
-            
-            if (standardProfiles.containsKey(profileName)) {
-                // Set the client profile - this is how Lost Cities knows what profile to use
-                String currentProfile = (String) ((Field)profileFromClientField).get(null);
-                LOGGER.info("Current Lost Cities profile: '{}', changing to: '{}'", currentProfile, profileName);
-                
-                ((Field)profileFromClientField).set(null, profileName);
-                
-                // Verify the change took effect
-                String newProfile = (String) ((Field)profileFromClientField).get(null);
-                LOGGER.info("Profile change verification: new profile is '{}'", newProfile);
-                
-                // If there are custom settings, we could create a custom JSON
-                if (config.has("settings")) {
-                    String customJson = GSON.toJson(config.get("settings"));
-                    String currentJson = (String) ((Field)jsonFromClientField).get(null);
-                    LOGGER.info("Current custom JSON: {}", currentJson);
-                    
-                    ((Field)jsonFromClientField).set(null, customJson);
-                    LOGGER.info("Applied custom settings for profile: {}", profileName);
-                    LOGGER.info("Custom settings JSON: {}", customJson);
-                    
-                    // Verify JSON change
-                    String newJson = (String) ((Field)jsonFromClientField).get(null);
-                    LOGGER.info("JSON change verification: new JSON is: {}", newJson);
-                }
-                
-                // Try to refresh the Lost Cities configuration
-                refreshLostCitiesConfig();
-                
-                // Apply dimension-specific configuration if needed
-                applyDimensionSpecificConfiguration(profileName);
-                
-                LOGGER.info("✓ Successfully applied Lost Cities profile: '{}'", profileName);
-                
+    static void applyConfiguration(List<DimensionPreset> presets, Map<String, ?> standardProfiles) {
+        applyConfiguration(presets, standardProfiles, null);
+    }
+    
+    /**
+     * The dimension=profile entries an apply writes: each dimension whose preset loaded and
+     * names a profile Lost Cities has
+     */
+    private static Map<String, String> selectDimensionProfiles(List<DimensionPreset> presets, Map<String, ?> standardProfiles) {
+        Map<String, String> dimensionProfiles = new LinkedHashMap<>();
+        for (DimensionPreset dimensionPreset : presets) {
+            PresetCache.Preset preset = dimensionPreset.preset();
+            if (preset != null && standardProfiles.containsKey(preset.profileName())) {
+                dimensionProfiles.put(dimensionPreset.dimension(), preset.profileName());
+            }
+        }
+        return dimensionProfiles;
+    }
+    
+    /**
+     * @param patchedConfigFile set if Lost Cities' config file was already patched off-thread, null to patch it here
+     */
+    private static void applyConfiguration(List<DimensionPreset> presets, Map<String, ?> standardProfiles,
+                                           PatchedConfigFile patchedConfigFile) {
+        // Skip everything if nothing changed since the last apply - re-applying would
+        // only throw away Lost Cities' dimension info cache again
+        AutoloaderMetrics.APPLIES_ATTEMPTED.increment();
+        long start = System.nanoTime();
+        String fingerprint = ProfileApplyEngine.fingerprint(presets, standardProfiles.keySet());
+        if (ProfileApplyEngine.isUpToDate(fingerprint)) {
+            AutoloaderDiagnostics.record("apply", "Configuration unchanged since the last apply - skipped (fingerprint {})", fingerprint);
+            AutoloaderMetrics.APPLIES_SKIPPED.increment();
+            return;
+        }
+        
+        // The config file only needs patching if the world was last generated with something else
+        AppliedStateData.State worldState = AppliedStateData.describe(presets);
+        boolean matchesWorld = AppliedStateData.matchesWorld(worldState);
+        boolean configFileCurrent = patchedConfigFile != null
+                || (matchesWorld && AppliedStateData.isConfigFileCurrent(worldState));
+        AutoloaderDiagnostics.record("apply", "Fingerprint {}, Lost Cities config file current for this world: {}",
+                                     fingerprint, configFileCurrent);
+        
+        // The primary preset drives Lost Cities' global profile and settings
+        DimensionPreset primary = presets.get(0);
+        PresetCache.Preset preset = primary.preset();
+        ApplyTransaction transaction = new ApplyTransaction();
+        if (preset == null) {
+            LOGGER.warn("Configuration file not found: {} - no profile will be applied", primary.configFileName());
+        } else if (!standardProfiles.containsKey(preset.profileName())) {
+            LOGGER.warn("Profile '{}' not found in Lost Cities - no profile will be applied", preset.profileName());
+            AutoloaderDiagnostics.record("apply", "Available Lost Cities profiles: {}", standardProfiles.keySet());
+        } else {
+            AutoloaderDiagnostics.record("apply", "{} -> profile {}, settings {}",
+                                         primary.configFileName(), preset.profileName(), preset.settingsJson());
+            // The dimension entry uses the same profile as the preset
+            transaction.setProfile(preset.profileName()).setJson(preset.settingsJson())
+                    .putDimensionProfile(primary.dimension(), preset.profileName());
+        }
+        
+        // Every additional dimension only contributes its profile
+        for (DimensionPreset dimensionPreset : presets.subList(1, presets.size())) {
+            PresetCache.Preset extra = dimensionPreset.preset();
+            if (extra == null) {
+                LOGGER.warn("Configuration file not found: {} - {} left unchanged",
+                           dimensionPreset.configFileName(), dimensionPreset.dimension());
+            } else if (!standardProfiles.containsKey(extra.profileName())) {
+                LOGGER.warn("Profile '{}' for {} not found in Lost Cities - {} left unchanged",
+                           extra.profileName(), dimensionPreset.dimension(), dimensionPreset.dimension());
+                AutoloaderDiagnostics.record("apply", "Available Lost Cities profiles: {}", standardProfiles.keySet());
             } else {
-                LOGGER.warn("✗ Profile '{}' not found in Lost Cities - available profiles: {}", 
-                           profileName, standardProfiles.keySet());
+                AutoloaderDiagnostics.record("apply", "{}: {} -> profile {}", dimensionPreset.dimension(),
+                                             dimensionPreset.configFileName(), extra.profileName());
+                transaction.putDimensionProfile(dimensionPreset.dimension(), extra.profileName());
             }
-            
+        }
+        
+        if (configFileCurrent) {
+            transaction.assumeConfigFileCurrent();
+        }
+        
+        try {
+            transaction.commit();
         } catch (Exception e) {
-            LOGGER.error("✗ Failed to apply profile to Lost Cities", e);
+            LOGGER.error("Failed to apply profile to Lost Cities", e);
+            AutoloaderMetrics.APPLIES_FAILED.increment();
+            AutoloaderDiagnostics.dump("apply failed");
+            return;
+        } finally {
+            AutoloaderMetrics.APPLY_LATENCY.record(System.nanoTime() - start);
+        }
+        
+        ProfileApplyEngine.markApplied(fingerprint);
+        if (patchedConfigFile != null) {
+            AppliedStateData.record(worldState, patchedConfigFile.stamp());
+        } else {
+            AppliedStateData.record(worldState);
         }
     }
     
-    private static void refreshLostCitiesConfig() {
+    private static PresetCache.Preset loadConfigurationFile(String configFileName) {
         try {
-            // Try to call resetProfileCache if it exists
-            Method resetMethod = configClass.getDeclaredMethod("resetProfileCache");
-            resetMethod.setAccessible(true);
-            resetMethod.invoke(null);
-            
-            // Also try to increment the dirty counter to force cache refresh
-            try {
-                Class<?> featureClass = Class.forName("mcjty.lostcities.worldgen.LostCityFeature");
-                Field dirtyCounterField = featureClass.getDeclaredField("globalDimensionInfoDirtyCounter");
-                dirtyCounterField.setAccessible(true);
-                int currentValue = dirtyCounterField.getInt(null);
-                dirtyCounterField.setInt(null, currentValue + 1);
-            } catch (Exception e) {
-                // Not critical if this fails
-                LOGGER.debug("Could not increment dirty counter", e);
-            }
-            
+            return PresetResolver.resolve(configFileName, AutoloaderProfileManager::loadUnresolvedPreset);
         } catch (Exception e) {
-            LOGGER.debug("Could not refresh Lost Cities config", e);
+            LOGGER.error("Failed to load configuration file: {} - {}", configFileName, e.getMessage());
+            return null;
+        }
+    }
+    
+    private static PresetCache.Preset loadUnresolvedPreset(String presetName) throws IOException {
+        PresetRegistry.Entry entry = PresetRegistry.get(presetName);
+        if (entry != null) {
+            if (entry.preset() == null) {
+                throw new IOException(presetName + ": " + entry.error());
+            }
+            return entry.preset();
         }
+        
+        // Not indexed, e.g. created while hot reload was off - fall back to reading it
+        return PresetCache.get(getPresetDirectory().resolve(presetName + ".json"));
     }
     
     public static void applyToNewWorld() {
@@ -265,7 +300,7 @@ public class AutoloaderProfileManager {
             return;
         }
         
-        if (!lostCitiesLoaded) {
+        if (!LostCitiesConnection.isAvailable()) {
             return;
         }
         
@@ -275,80 +310,19 @@ public class AutoloaderProfileManager {
     }
     
     public static boolean isLostCitiesAvailable() {
-        return lostCitiesLoaded;
+        return LostCitiesConnection.isAvailable();
     }
     
     public static void listAvailableProfiles() {
-        if (!lostCitiesLoaded) {
+        if (!LostCitiesConnection.isAvailable()) {
             LOGGER.info("Lost Cities not available");
             return;
         }
         
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> standardProfiles = (Map<String, Object>) ((Field)standardProfilesField).get(null);
-            LOGGER.info("Available Lost Cities profiles: {}", standardProfiles.keySet());
+            LOGGER.info("Available Lost Cities profiles: {}", LostCitiesBridge.getStandardProfiles().keySet());
         } catch (Exception e) {
             LOGGER.error("Failed to list available profiles", e);
         }
     }
-    
-    private static void applyDimensionSpecificConfiguration(String profileName) {
-        try {
-            String lostCityDimension = DimensionManager.getLostCityDimensionConfiguration();
-            
-            if (!"minecraft:overworld".equals(lostCityDimension)) {
-                LOGGER.info("Configuring Lost Cities profile '{}' for dimension: {}", profileName, lostCityDimension);
-                
-                // Try to access and modify Lost Cities dimension configuration
-                try {
-                    // Look for the Lost Cities config class that handles dimension profiles
-                    Class<?> lostCitiesConfig = Class.forName("mcjty.lostcities.setup.Config");
-                    
-                    // Try to find the dimensionsWithProfiles field
-                    Field dimensionsField = lostCitiesConfig.getDeclaredField("dimensionsWithProfiles");
-                    dimensionsField.setAccessible(true);
-                    
-                    @SuppressWarnings("unchecked")
-                    java.util.List<String> dimensionProfiles = (java.util.List<String>) dimensionsField.get(null);
-                    
-                    if (dimensionProfiles != null) {
-                        // Create the dimension profile entry
-                        String dimensionProfileEntry = lostCityDimension + "=" + profileName;
-                        
-                        // Check if this dimension is already configured
-                        boolean found = false;
-                        for (int i = 0; i < dimensionProfiles.size(); i++) {
-                            String entry = dimensionProfiles.get(i);
-                            if (entry.startsWith(lostCityDimension + "=")) {
-                                // Update existing entry
-                                dimensionProfiles.set(i, dimensionProfileEntry);
-                                found = true;
-                                LOGGER.info("Updated Lost Cities dimension profile: {}", dimensionProfileEntry);
-                                break;
-                            }
-                        }
-                        
-                        if (!found) {
-                            // Add new entry
-                            dimensionProfiles.add(dimensionProfileEntry);
-                            LOGGER.info("Added Lost Cities dimension profile: {}", dimensionProfileEntry);
-                        }
-                        
-                        LOGGER.info("Lost Cities dimensions with profiles: {}", dimensionProfiles);
-                    }
-                    
-                } catch (ClassNotFoundException e) {
-                    LOGGER.warn("Lost Cities config class not found - dimension configuration not applied");
-                } catch (NoSuchFieldException e) {
-                    LOGGER.warn("Lost Cities dimensionsWithProfiles field not found - dimension configuration not applied");
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to modify Lost Cities dimension configuration: {}", e.getMessage());
-                }
-            }
-            
-        } catch (Exception e) {
-            LOGGER.error("Failed to apply dimension-specific configuration", e);
-        }
-    }
 }
@@ -0,0 +1,227 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Binary cache of the resolved presets, kept across restarts
+ *
+ * After a full resolve the selected presets (dimension, file name, profile, canonical
+ * settings and content hash) are written to a small binary file together with a source
+ * fingerprint. The fingerprint covers the selection, the size and modification time of
+ * every file the presets could have come from - including the presets they extend, which
+ * are listed ahead of the fingerprint - and Lost Cities' profile names. On the next
+ * start a matching fingerprint turns the whole resolve step into one sequential read;
+ * anything else falls back to a full resolve.
+ */
+public class CompiledPresetCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final int MAGIC = 0x4C434150; // "LCAP"
+    private static final int VERSION = 2;
+
+    /**
+     * Location of the cache file
+     */
+    public static Path getCacheFile() {
+        return AutoloaderProfileManager.getPresetDirectory().resolve(".cache").resolve("compiled_presets.bin");
+    }
+
+    /**
+     * Read the cached presets for a selection
+     *
+     * @param selection dimension to preset file name, primary dimension first
+     * @return the cached presets, or null if there is no cache or it does not match
+     */
+    public static List<AutoloaderProfileManager.DimensionPreset> load(Map<String, String> selection,
+                                                                      Collection<String> availableProfiles) {
+        Path cacheFile = getCacheFile();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                LOGGER.debug("Compiled preset cache has an unknown format - recompiling");
+                return null;
+            }
+            int dependencyCount = input.readInt();
+            List<String> dependencies = new ArrayList<>(dependencyCount);
+            for (int i = 0; i < dependencyCount; i++) {
+                dependencies.add(input.readUTF());
+            }
+            String fingerprint = sourceFingerprint(selection, dependencies, availableProfiles);
+            if (!fingerprint.equals(input.readUTF())) {
+                LOGGER.debug("Compiled preset cache is out of date - recompiling");
+                return null;
+            }
+
+            int count = input.readInt();
+            List<AutoloaderProfileManager.DimensionPreset> presets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String dimension = input.readUTF();
+                String configFileName = input.readUTF();
+                PresetCache.Preset preset = null;
+                if (input.readBoolean()) {
+                    preset = new PresetCache.Preset(input.readUTF(), readString(input), input.readUTF(), null);
+                }
+                presets.add(new AutoloaderProfileManager.DimensionPreset(dimension, configFileName, preset));
+            }
+            LOGGER.debug("Loaded {} preset(s) from the compiled preset cache", count);
+            return presets;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read compiled preset cache - recompiling: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write freshly resolved presets to the cache, unless one of them failed to resolve
+     */
+    public static void store(Map<String, String> selection, Collection<String> availableProfiles,
+                             List<AutoloaderProfileManager.DimensionPreset> presets) {
+        // A preset that failed to resolve may depend on a parent that is not recorded - e.g. a
+        // missing one - so its fingerprint would not change once that parent is fixed
+        if (presets.stream().anyMatch(preset -> preset.preset() == null)) {
+            LOGGER.debug("Not caching presets - at least one selected preset failed to resolve");
+            return;
+        }
+        Path cacheFile = getCacheFile();
+        try {
+            // Resolving the presets recorded what each of them extends
+            Set<String> dependencies = new TreeSet<>();
+            for (String configFileName : selection.values()) {
+                dependencies.addAll(PresetResolver.dependencies(configFileName));
+            }
+            String fingerprint = sourceFingerprint(selection, dependencies, availableProfiles);
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    output.writeInt(MAGIC);
+                    output.writeInt(VERSION);
+                    output.writeInt(dependencies.size());
+                    for (String dependency : dependencies) {
+                        output.writeUTF(dependency);
+                    }
+                    output.writeUTF(fingerprint);
+                    output.writeInt(presets.size());
+                    for (AutoloaderProfileManager.DimensionPreset dimensionPreset : presets) {
+                        output.writeUTF(dimensionPreset.dimension());
+                        output.writeUTF(dimensionPreset.configFileName());
+                        PresetCache.Preset preset = dimensionPreset.preset();
+                        output.writeBoolean(preset != null);
+                        if (preset != null) {
+                            output.writeUTF(preset.profileName());
+                            writeString(output, preset.settingsJson());
+                            output.writeUTF(preset.contentHash());
+                        }
+                    }
+                }
+                try {
+                    Files.move(temp, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            LOGGER.debug("Wrote {} preset(s) to the compiled preset cache", presets.size());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write compiled preset cache: {}", e.getMessage());
+        }
+    }
+
+    private static String sourceFingerprint(Map<String, String> selection, Collection<String> dependencies,
+                                            Collection<String> availableProfiles) throws IOException {
+        MessageDigest digest = ProfileApplyEngine.newDigest();
+        Path presetDir = AutoloaderProfileManager.getPresetDirectory();
+
+        for (Map.Entry<String, String> entry : selection.entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, entry.getValue());
+            updateStat(digest, presetDir.resolve(entry.getValue()));
+        }
+
+        for (String dependency : dependencies) {
+            update(digest, dependency);
+            updateStat(digest, presetDir.resolve(dependency + ".json"));
+        }
+
+        // A selected preset missing as a file may come from any bundle
+        List<Path> bundles;
+        try (Stream<Path> stream = Files.list(presetDir)) {
+            bundles = stream.filter(PresetBundle::isBundle).sorted().toList();
+        }
+        for (Path bundle : bundles) {
+            update(digest, bundle.getFileName().toString());
+            updateStat(digest, bundle);
+        }
+
+        List<String> profiles = new ArrayList<>(availableProfiles);
+        profiles.sort(null);
+        for (String profile : profiles) {
+            update(digest, profile);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void updateStat(MessageDigest digest, Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            update(digest, "missing");
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    // Settings can exceed writeUTF's 64 KB limit, so they get an int length prefix; -1 marks null
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
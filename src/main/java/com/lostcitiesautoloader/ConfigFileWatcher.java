@@ -1,93 +1,78 @@
 package com.lostcitiesautoloader;
 
 import com.mojang.logging.LogUtils;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.neoforge.server.ServerLifecycleHooks;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Watches the config directory for file changes to debug the .bak file creation issue
+ * Watches the autoloader presets and hot reloads them, together with mod config changes
+ *
+ * Bursts of file events (editors saving through a temp file and a rename produce several
+ * per save) are coalesced until the files have been quiet for the configured window.
+ * Only the presets that changed are re-parsed, and Lost Cities' config file is patched, on
+ * the watcher's own thread. Only the in-memory part of the apply is handed to the server
+ * thread.
+ *
+ * The mod's own config file is not watched: NeoForge re-reads it and then fires
+ * ModConfigEvent.Reloading, which calls {@link #requestReload()}. Reacting to the file
+ * directly would apply the old config values before NeoForge had re-read them.
  */
 public class ConfigFileWatcher {
     private static final Logger LOGGER = LogUtils.getLogger();
     private static final AtomicBoolean watching = new AtomicBoolean(false);
+    private static final Object lock = new Object();
     private static WatchService watchService;
     private static Thread watchThread;
+    private static ScheduledExecutorService reloadExecutor;
+    private static ScheduledFuture<?> pendingReload;
+    private static long quietWindowMs;
+    // Guarded by lock
+    private static final Set<Path> changedPresets = new HashSet<>();
+    // Set when the mod config was reloaded or preset events were lost
+    private static boolean reapplyRequested = false;
 
     public static void startWatching() {
+        if (!AutoloaderConfigSimple.ENABLE_HOT_RELOAD.get()) {
+            LOGGER.debug("Hot reload disabled - not watching preset files");
+            return;
+        }
+
         if (watching.compareAndSet(false, true)) {
             try {
-                Path configDir = Paths.get("config");
-                if (!Files.exists(configDir)) {
-                    LOGGER.info("Config directory doesn't exist yet, creating it");
-                    Files.createDirectories(configDir);
-                }
+                Path presetDir = AutoloaderProfileManager.getPresetDirectory();
+                Files.createDirectories(presetDir);
 
-                LOGGER.info("=== Starting config file watcher on: {} ===", configDir.toAbsolutePath());
+                quietWindowMs = AutoloaderConfigSimple.HOT_RELOAD_QUIET_WINDOW_MS.get();
                 watchService = FileSystems.getDefault().newWatchService();
-                
-                // Register the config directory for all types of events
-                configDir.register(watchService, 
+
+                presetDir.register(watchService,
                     StandardWatchEventKinds.ENTRY_CREATE,
                     StandardWatchEventKinds.ENTRY_DELETE,
                     StandardWatchEventKinds.ENTRY_MODIFY);
 
-                watchThread = new Thread(() -> {
-                    LOGGER.info("Config file watcher thread started");
-                    try {
-                        while (!Thread.currentThread().isInterrupted()) {
-                            WatchKey key = watchService.take();
-                            
-                            for (WatchEvent<?> event : key.pollEvents()) {
-                                WatchEvent.Kind<?> kind = event.kind();
-                                
-                                if (kind == StandardWatchEventKinds.OVERFLOW) {
-                                    continue;
-                                }
-                                
-                                @SuppressWarnings("unchecked")
-                                WatchEvent<Path> pathEvent = (WatchEvent<Path>) event;
-                                Path fileName = pathEvent.context();
-                                
-                                // Only log our config files
-                                if (fileName.toString().contains("lostcitiesautoloader")) {
-                                    LOGGER.info("*** CONFIG FILE EVENT: {} - {} ***", kind.name(), fileName);
-                                    LOGGER.info("    Event count: {}", event.count());
-                                    LOGGER.info("    Full path: {}", configDir.resolve(fileName));
-                                    LOGGER.info("    Timestamp: {}", java.time.Instant.now());
-                                    LOGGER.info("    Thread: {}", Thread.currentThread().getName());
-                                    
-                                    // Print stack trace to see what's causing the file operation
-                                    LOGGER.info("    Stack trace:");
-                                    StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-                                    for (int i = 0; i < Math.min(15, stackTrace.length); i++) {
-                                        LOGGER.info("      [{}] {}", i, stackTrace[i]);
-                                    }
-                                }
-                            }
-                            
-                            boolean valid = key.reset();
-                            if (!valid) {
-                                LOGGER.warn("Config watcher key became invalid");
-                                break;
-                            }
-                        }
-                    } catch (InterruptedException e) {
-                        LOGGER.info("Config file watcher interrupted");
-                        Thread.currentThread().interrupt();
-                    } catch (Exception e) {
-                        LOGGER.error("Error in config file watcher", e);
-                    } finally {
-                        LOGGER.info("Config file watcher thread ending");
-                    }
-                }, "ConfigFileWatcher");
-                
+                reloadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "ConfigFileWatcher-Reload");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+                watchThread = new Thread(() -> watchLoop(presetDir), "ConfigFileWatcher");
                 watchThread.setDaemon(true);
                 watchThread.start();
-                LOGGER.info("Config file watcher started successfully");
-                
+                LOGGER.info("Watching {} for preset changes (quiet window {} ms)", presetDir, quietWindowMs);
+
             } catch (IOException e) {
                 LOGGER.error("Failed to start config file watcher", e);
                 watching.set(false);
@@ -97,7 +82,7 @@ public class ConfigFileWatcher {
 
     public static void stopWatching() {
         if (watching.compareAndSet(true, false)) {
-            LOGGER.info("Stopping config file watcher");
+            LOGGER.debug("Stopping config file watcher");
             try {
                 if (watchService != null) {
                     watchService.close();
@@ -105,9 +90,141 @@ public class ConfigFileWatcher {
                 if (watchThread != null) {
                     watchThread.interrupt();
                 }
+                if (reloadExecutor != null) {
+                    reloadExecutor.shutdownNow();
+                }
             } catch (IOException e) {
                 LOGGER.error("Error stopping config file watcher", e);
             }
+            synchronized (lock) {
+                changedPresets.clear();
+                reapplyRequested = false;
+                pendingReload = null;
+            }
+        }
+    }
+
+    /**
+     * Schedule a reload after the mod config changed, merging it with any pending file events
+     */
+    public static void requestReload() {
+        if (watching.get()) {
+            synchronized (lock) {
+                reapplyRequested = true;
+                scheduleReload();
+            }
+        }
+    }
+
+    private static void watchLoop(Path presetDir) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+
+                synchronized (lock) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            // Events were lost - everything has to be re-validated
+                            PresetCache.invalidateAll();
+                            PresetResolver.invalidateAll();
+                            reapplyRequested = true;
+                            scheduleReload();
+                            continue;
+                        }
+
+                        Path fileName = (Path) event.context();
+                        if (fileName.toString().endsWith(".json") || PresetBundle.isBundle(fileName)) {
+                            changedPresets.add(presetDir.resolve(fileName));
+                            scheduleReload();
+                        }
+                    }
+                }
+
+                if (!key.reset()) {
+                    LOGGER.warn("Preset watcher key became invalid: {}", presetDir);
+                    break;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.error("Error in config file watcher", e);
+        }
+    }
+
+    // Must hold lock
+    private static void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = reloadExecutor.schedule(ConfigFileWatcher::reload, quietWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void reload() {
+        // The executor would swallow the exception, and with it any sign the reload failed
+        try {
+            reloadChangedPresets();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to reload changed presets - keeping the current configuration", e);
+            AutoloaderDiagnostics.record("reload", "Reload failed", e);
+        }
+    }
+
+    private static void reloadChangedPresets() {
+        Set<Path> presets;
+        boolean reapply;
+        synchronized (lock) {
+            presets = new HashSet<>(changedPresets);
+            reapply = reapplyRequested;
+            changedPresets.clear();
+            reapplyRequested = false;
+            pendingReload = null;
+        }
+        AutoloaderDiagnostics.record("reload", "Changed preset files {}, re-apply requested: {}", presets, reapply);
+
+        // Re-parse only what changed and update the preset index with it
+        for (Path preset : presets) {
+            PresetCache.invalidate(preset);
+        }
+        PresetRegistry.refresh(presets);
+
+        Path presetDir = AutoloaderProfileManager.getPresetDirectory().toAbsolutePath().normalize();
+        Set<Path> changed = new HashSet<>();
+        for (Path preset : presets) {
+            changed.add(preset.toAbsolutePath().normalize());
+        }
+        // Every selected preset is already indexed, or was just re-parsed above
+        List<AutoloaderProfileManager.DimensionPreset> selected = AutoloaderProfileManager.resolvePresets();
+        // A changed bundle may hold a selected preset - the apply fingerprint skips it if not
+        boolean selectedChanged = presets.stream().anyMatch(PresetBundle::isBundle) || selected.stream()
+                .anyMatch(preset -> changed.contains(presetDir.resolve(preset.configFileName()))
+                        || PresetResolver.dependencies(preset.configFileName()).stream()
+                                .anyMatch(parent -> changed.contains(presetDir.resolve(parent + ".json"))));
+        if (!selectedChanged && !reapply) {
+            AutoloaderDiagnostics.record("reload", "Changed presets are not in use - nothing to apply");
+            return;
+        }
+        for (AutoloaderProfileManager.DimensionPreset preset : selected) {
+            PresetRegistry.Entry entry = PresetRegistry.get(preset.configFileName());
+            // Also catches presets whose parent is missing, invalid or part of a cycle
+            if (entry != null && (entry.preset() == null || preset.preset() == null)) {
+                LOGGER.error("Preset {} is invalid - keeping the current configuration", preset.configFileName());
+                return;
+            }
+        }
+
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null) {
+            return;
+        }
+        if (!ReadinessTracker.isReady()) {
+            LOGGER.debug("Autoloader not ready - reloaded configuration will be applied at the next server start");
+            return;
         }
+        // File I/O stays on this thread - the server thread only swaps Lost Cities' in-memory values
+        AutoloaderProfileManager.PatchedConfigFile configFile = AutoloaderProfileManager.patchConfigFile(selected);
+        AutoloaderDiagnostics.record("reload", "Reloading {} selected preset(s) on the server thread, config file stamp {}",
+                                     selected.size(), configFile.stamp());
+        server.execute(() -> AutoloaderProfileManager.applyReloadedConfiguration(selected, configFile));
     }
 }
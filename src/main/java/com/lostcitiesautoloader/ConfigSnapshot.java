@@ -0,0 +1,174 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-parsed view of the autoloader config
+ *
+ * Built whenever the config is loaded or reloaded and published through a volatile
+ * reference, so hot paths like player login read plain fields instead of calling
+ * ConfigValue.get() and re-parsing coordinate and facing strings.
+ *
+ * @param dimensionPresets  additional dimension to preset name mappings, without the primary lost_city_dimension
+ * @param spawnDimensionKey null if player_spawn_dimension is not a valid resource location
+ * @param spawnYaw          Minecraft yaw derived from player_spawn_facing, only meaningful if hasSpawnFacing
+ */
+public record ConfigSnapshot(
+        boolean autoloaderEnabled,
+        String configFileName,
+        String lostCityDimension,
+        Map<String, String> dimensionPresets,
+        boolean customSpawnEnabled,
+        String playerSpawnDimension,
+        ResourceKey<Level> spawnDimensionKey,
+        boolean hasSpawnCoordinates,
+        double spawnX,
+        double spawnY,
+        double spawnZ,
+        boolean hasSpawnFacing,
+        float spawnYaw,
+        String spawnDescription,
+        AutoloaderConfigSimple.SpawnTeleportPolicy spawnTeleportPolicy,
+        int spawnChunkTimeoutTicks,
+        AutoloaderConfigSimple.SpawnTimeoutAction spawnTimeoutAction,
+        int spawnKeepLoadedRadius,
+        int teleportTickBudgetMs,
+        int teleportMaxPerTick) {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static volatile ConfigSnapshot current = null;
+
+    /**
+     * The most recently published snapshot, or null if the config has not been loaded yet
+     */
+    public static ConfigSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Build a snapshot from the loaded config values and publish it
+     */
+    public static ConfigSnapshot publish() {
+        ConfigSnapshot snapshot = parse(
+                AutoloaderConfigSimple.ENABLE_AUTOLOADER.get(),
+                AutoloaderConfigSimple.CONFIG_FILE_NAME.get(),
+                AutoloaderConfigSimple.LOST_CITY_DIMENSION.get(),
+                AutoloaderConfigSimple.DIMENSION_PRESETS.get(),
+                AutoloaderConfigSimple.ENABLE_CUSTOM_SPAWN.get(),
+                AutoloaderConfigSimple.PLAYER_SPAWN_DIMENSION.get(),
+                AutoloaderConfigSimple.PLAYER_SPAWN_COORDINATES.get(),
+                AutoloaderConfigSimple.PLAYER_SPAWN_FACING.get(),
+                AutoloaderConfigSimple.SPAWN_TELEPORT_POLICY.get(),
+                AutoloaderConfigSimple.SPAWN_CHUNK_TIMEOUT_TICKS.get(),
+                AutoloaderConfigSimple.SPAWN_CHUNK_TIMEOUT_ACTION.get(),
+                AutoloaderConfigSimple.SPAWN_KEEP_LOADED_RADIUS.get(),
+                AutoloaderConfigSimple.TELEPORT_TICK_BUDGET_MS.get(),
+                AutoloaderConfigSimple.TELEPORT_MAX_PER_TICK.get());
+        current = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Parse raw config values into a snapshot. Invalid values are logged once here and
+     * fall back to the defaults the login path used to pick on every login.
+     */
+    public static ConfigSnapshot parse(boolean autoloaderEnabled, String configFileName, String lostCityDimension,
+                                       List<? extends String> dimensionPresetEntries, boolean customSpawnEnabled, String playerSpawnDimension,
+                                       String coordinates, String facing,
+                                       AutoloaderConfigSimple.SpawnTeleportPolicy spawnTeleportPolicy,
+                                       int spawnChunkTimeoutTicks,
+                                       AutoloaderConfigSimple.SpawnTimeoutAction spawnTimeoutAction,
+                                       int spawnKeepLoadedRadius, int teleportTickBudgetMs, int teleportMaxPerTick) {
+        Map<String, String> dimensionPresets = parseDimensionPresets(lostCityDimension, dimensionPresetEntries);
+        
+        ResourceKey<Level> spawnDimensionKey = null;
+        ResourceLocation dimensionLocation = ResourceLocation.tryParse(playerSpawnDimension);
+        if (dimensionLocation != null) {
+            spawnDimensionKey = ResourceKey.create(Registries.DIMENSION, dimensionLocation);
+        } else {
+            LOGGER.warn("Invalid player spawn dimension '{}'", playerSpawnDimension);
+        }
+
+        // Parse coordinates - use default spawn if empty or invalid
+        boolean hasSpawnCoordinates = false;
+        double x = 0, y = 0, z = 0;
+        if (coordinates != null && !coordinates.trim().isEmpty()) {
+            String[] parts = coordinates.split(",");
+            try {
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Coordinates must be in format 'x,y,z'");
+                }
+                // Parsed in full before any is kept, so a bad value never leaves a partial position
+                double parsedX = Double.parseDouble(parts[0].trim());
+                double parsedY = Double.parseDouble(parts[1].trim());
+                double parsedZ = Double.parseDouble(parts[2].trim());
+                x = parsedX;
+                y = parsedY;
+                z = parsedZ;
+                hasSpawnCoordinates = true;
+            } catch (Exception e) {
+                LOGGER.warn("Invalid coordinates format '{}', using default spawn", coordinates);
+            }
+        }
+
+        // Parse facing - use default if empty or invalid
+        boolean hasSpawnFacing = false;
+        double facingDegrees = 0;
+        float yaw = 0;
+        if (facing != null && !facing.trim().isEmpty()) {
+            try {
+                facingDegrees = Double.parseDouble(facing.trim());
+                // Convert facing to Minecraft's rotation system (0=South, 90=West, 180=North, 270=East)
+                yaw = (float) (facingDegrees - 180.0f);
+                if (yaw < 0) yaw += 360;
+                hasSpawnFacing = true;
+            } catch (Exception e) {
+                LOGGER.warn("Invalid facing format '{}', using default facing", facing);
+            }
+        }
+
+        String locationDesc = hasSpawnCoordinates ?
+            String.format("at coordinates (%.1f, %.1f, %.1f)", x, y, z) :
+            "at default spawn";
+        String facingDesc = hasSpawnFacing ?
+            String.format("facing %.1f degrees", facingDegrees) :
+            "with default facing";
+
+        return new ConfigSnapshot(autoloaderEnabled, configFileName, lostCityDimension, dimensionPresets,
+                customSpawnEnabled, playerSpawnDimension, spawnDimensionKey,
+                hasSpawnCoordinates, x, y, z, hasSpawnFacing, yaw,
+                locationDesc + " " + facingDesc, spawnTeleportPolicy, spawnChunkTimeoutTicks, spawnTimeoutAction,
+                spawnKeepLoadedRadius, teleportTickBudgetMs, teleportMaxPerTick);
+    }
+    
+    private static Map<String, String> parseDimensionPresets(String lostCityDimension, List<? extends String> entries) {
+        Map<String, String> dimensionPresets = new LinkedHashMap<>();
+        if (entries == null) {
+            return Map.of();
+        }
+        for (String entry : entries) {
+            int separator = entry.indexOf('=');
+            String dimension = separator < 0 ? "" : entry.substring(0, separator).trim();
+            String preset = separator < 0 ? "" : entry.substring(separator + 1).trim();
+            if (dimension.isEmpty() || preset.isEmpty() || ResourceLocation.tryParse(dimension) == null) {
+                LOGGER.warn("Invalid dimension preset '{}', expected 'dimension=preset'", entry);
+            } else if (dimension.equals(lostCityDimension)) {
+                LOGGER.warn("Dimension preset '{}' ignored - {} already uses config_file_name", entry, dimension);
+            } else if (dimensionPresets.put(dimension, preset) != null) {
+                LOGGER.warn("Dimension {} is listed more than once in dimension_presets - using '{}'", dimension, preset);
+            }
+        }
+        return Collections.unmodifiableMap(dimensionPresets);
+    }
+}
@@ -1,22 +1,24 @@
 package com.lostcitiesautoloader;
 
 import com.mojang.logging.LogUtils;
-import net.minecraft.core.registries.Registries;
+import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceKey;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
 import org.slf4j.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.List;
+import java.util.Comparator;
+import java.util.Map;
 
 /**
  * Manages custom player spawning and dimension configuration
@@ -25,64 +27,39 @@ import java.util.List;
 public class DimensionManager {
     private static final Logger LOGGER = LogUtils.getLogger();
     
+    // No lifespan - the ticket lives from server start until the server stops
+    private static final TicketType<ChunkPos> SPAWN_KEEP_LOADED =
+            TicketType.create(LostCitiesAutoloaderMod.MODID + ":spawn_keep_loaded", Comparator.comparingLong(ChunkPos::toLong));
+    
+    private static ServerLevel keptLoadedLevel = null;
+    private static ChunkPos keptLoadedChunk = null;
+    private static int keptLoadedRadius = 0;
+    
     /**
-     * Apply dimension configuration to Lost Cities
+     * Where and facing which way a player is placed at the custom spawn
      */
-    public static void applyDimensionConfiguration() {
-        try {
-            boolean enableCustomSpawn = AutoloaderConfigSimple.ENABLE_CUSTOM_SPAWN.get();
-            String playerSpawnDimension = AutoloaderConfigSimple.PLAYER_SPAWN_DIMENSION.get();
-            String lostCityDimension = AutoloaderConfigSimple.LOST_CITY_DIMENSION.get();
-            
-            LOGGER.info("Applying dimension configuration:");
-            LOGGER.info("  Custom spawn enabled: {}", enableCustomSpawn);
-            LOGGER.info("  Player spawn dimension: {}", playerSpawnDimension);
-            LOGGER.info("  Lost city dimension: {}", lostCityDimension);
-            
-            // Apply Lost Cities dimension configuration
-            updateLostCitiesDimensionConfig(lostCityDimension);
-            
-        } catch (Exception e) {
-            LOGGER.error("Failed to apply dimension configuration", e);
-        }
+    record SpawnTarget(double x, double y, double z, float yRot) {
     }
     
     /**
-     * Update Lost Cities configuration to generate in the specified dimension
+     * Update Lost Cities configuration to generate the given profiles in the given dimensions
+     *
+     * @return the outcome of the patch, or null if the file could not be read or written
      */
-    private static void updateLostCitiesDimensionConfig(String targetDimension) {
+    static LostCitiesTomlPatcher.Result updateLostCitiesDimensionConfig(Map<String, String> dimensionProfiles) {
         try {
-            Path configPath = Paths.get("config/lostcities/common.toml");
-            
-            if (!Files.exists(configPath)) {
-                LOGGER.warn("Lost Cities config file not found at: {}", configPath);
-                return;
-            }
-            
-            List<String> lines = Files.readAllLines(configPath);
-            boolean updated = false;
-            
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i);
-                if (line.trim().startsWith("dimensionsWithProfiles")) {
-                    // Update the dimensionsWithProfiles setting
-                    String newLine = "\tdimensionsWithProfiles = [\"" + targetDimension + "=default\"]";
-                    lines.set(i, newLine);
-                    updated = true;
-                    LOGGER.info("Updated Lost Cities dimension configuration to: {}", targetDimension);
-                    break;
-                }
-            }
+            Path configPath = LostCitiesTomlPatcher.commonConfig();
             
-            if (updated) {
-                Files.write(configPath, lines);
-                LOGGER.info("Lost Cities configuration file updated successfully");
-            } else {
-                LOGGER.warn("Could not find dimensionsWithProfiles setting in Lost Cities config");
+            LostCitiesTomlPatcher.Result result = LostCitiesTomlPatcher.patchDimensionProfiles(configPath, dimensionProfiles);
+            switch (result) {
+                case MISSING_FILE -> LOGGER.warn("Lost Cities config file not found at: {}", configPath);
+                case MISSING_SETTING -> LOGGER.warn("Could not find dimensionsWithProfiles setting in Lost Cities config");
             }
+            return result;
             
         } catch (IOException e) {
             LOGGER.error("Failed to update Lost Cities dimension configuration", e);
+            return null;
         }
     }
     
@@ -92,23 +69,21 @@ public class DimensionManager {
     @SubscribeEvent
     public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
         try {
-            boolean enableCustomSpawn = AutoloaderConfigSimple.ENABLE_CUSTOM_SPAWN.get();
+            ConfigSnapshot config = ConfigSnapshot.current();
             
-            if (!enableCustomSpawn) {
+            if (config == null || !config.customSpawnEnabled()) {
                 LOGGER.debug("Custom spawn disabled, player will spawn in default dimension");
                 return;
             }
             
-            String playerSpawnDimension = AutoloaderConfigSimple.PLAYER_SPAWN_DIMENSION.get();
-            String playerSpawnCoordinates = AutoloaderConfigSimple.PLAYER_SPAWN_COORDINATES.get();
-            String playerSpawnFacing = AutoloaderConfigSimple.PLAYER_SPAWN_FACING.get();
-            
-            LOGGER.info("Custom spawn enabled - target dimension: {}, coordinates: '{}', facing: '{}'", 
-                       playerSpawnDimension, playerSpawnCoordinates, playerSpawnFacing);
-            
             // Teleport player to custom dimension with custom coordinates and facing
             if (event.getEntity() instanceof ServerPlayer serverPlayer) {
-                teleportPlayerToDimension(serverPlayer, playerSpawnDimension, playerSpawnCoordinates, playerSpawnFacing);
+                if (config.spawnTeleportPolicy() != AutoloaderConfigSimple.SpawnTeleportPolicy.ALWAYS
+                        && SpawnedPlayersData.get(serverPlayer.getServer()).hasSpawned(serverPlayer.getUUID())) {
+                    LOGGER.debug("Player {} was already placed at the custom spawn", serverPlayer.getName().getString());
+                    return;
+                }
+                teleportPlayerToDimension(serverPlayer, config);
             }
             
         } catch (Exception e) {
@@ -117,96 +92,191 @@ public class DimensionManager {
     }
     
     /**
-     * Teleport a player to the specified dimension with custom coordinates and facing
+     * Send players without a respawn point back to the custom spawn after death, if the policy asks for it
      */
-    private static void teleportPlayerToDimension(ServerPlayer player, String dimensionName, String coordinates, String facing) {
+    @SubscribeEvent
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
         try {
-            ResourceLocation dimensionLocation = ResourceLocation.parse(dimensionName);
-            ResourceKey<Level> dimensionKey = ResourceKey.create(Registries.DIMENSION, dimensionLocation);
+            ConfigSnapshot config = ConfigSnapshot.current();
+            if (config == null || !config.customSpawnEnabled()
+                    || config.spawnTeleportPolicy() != AutoloaderConfigSimple.SpawnTeleportPolicy.FIRST_JOIN_OR_NO_BED
+                    || event.isEndConquered()) {
+                return;
+            }
             
-            ServerLevel targetLevel = player.getServer().getLevel(dimensionKey);
+            if (event.getEntity() instanceof ServerPlayer serverPlayer && serverPlayer.getRespawnPosition() == null) {
+                teleportPlayerToDimension(serverPlayer, config);
+            }
+            
+        } catch (Exception e) {
+            LOGGER.error("Failed to handle custom player respawn", e);
+        }
+    }
+    
+    /**
+     * Teleport a player to the configured spawn dimension with custom coordinates and facing
+     */
+    private static void teleportPlayerToDimension(ServerPlayer player, ConfigSnapshot config) {
+        String dimensionName = config.playerSpawnDimension();
+        try {
+            ResourceKey<Level> dimensionKey = config.spawnDimensionKey();
+            ServerLevel targetLevel = dimensionKey == null ? null : player.getServer().getLevel(dimensionKey);
             
             if (targetLevel == null) {
                 LOGGER.error("Target dimension does not exist: {}", dimensionName);
                 return;
             }
             
-            // Parse coordinates - use default spawn if empty or invalid
-            double x, y, z;
-            boolean useCustomCoordinates = false;
+            SpawnTarget target = resolveSpawnTarget(config, targetLevel.getSharedSpawnPos(), player.getYRot());
+            double x = target.x();
+            double y = target.y();
+            double z = target.z();
+            float yRot = target.yRot();
             
-            if (coordinates != null && !coordinates.trim().isEmpty()) {
-                try {
-                    String[] parts = coordinates.split(",");
-                    if (parts.length != 3) {
-                        throw new IllegalArgumentException("Coordinates must be in format 'x,y,z'");
-                    }
-                    x = Double.parseDouble(parts[0].trim());
-                    y = Double.parseDouble(parts[1].trim());
-                    z = Double.parseDouble(parts[2].trim());
-                    useCustomCoordinates = true;
-                    LOGGER.debug("Using custom coordinates: ({}, {}, {})", x, y, z);
-                } catch (Exception e) {
-                    LOGGER.warn("Invalid coordinates format '{}', using default spawn", coordinates);
-                    x = targetLevel.getSharedSpawnPos().getX();
-                    y = targetLevel.getSharedSpawnPos().getY();
-                    z = targetLevel.getSharedSpawnPos().getZ();
-                }
-            } else {
-                LOGGER.debug("No custom coordinates specified, using default spawn");
-                x = targetLevel.getSharedSpawnPos().getX();
-                y = targetLevel.getSharedSpawnPos().getY();
-                z = targetLevel.getSharedSpawnPos().getZ();
-            }
-            
-            // Parse facing - use default if empty or invalid
-            float yRot = player.getYRot(); // Keep current facing as default
-            boolean useCustomFacing = false;
-            
-            if (facing != null && !facing.trim().isEmpty()) {
-                try {
-                    double facingDegrees = Double.parseDouble(facing.trim());
-                    // Convert facing to Minecraft's rotation system (0=South, 90=West, 180=North, 270=East)
-                    yRot = (float) (facingDegrees - 180.0f);
-                    if (yRot < 0) yRot += 360;
-                    useCustomFacing = true;
-                    LOGGER.debug("Using custom facing: {} degrees", facingDegrees);
-                } catch (Exception e) {
-                    LOGGER.warn("Invalid facing format '{}', using default facing", facing);
-                }
-            } else {
-                LOGGER.debug("No custom facing specified, using default facing");
+            // Spans the chunk preload and the teleport queue, committed once the player is placed
+            AutoloaderEvents.SpawnTeleport event = new AutoloaderEvents.SpawnTeleport();
+            event.begin();
+            // Skip the name lookup when no recording has the event enabled
+            if (event.isEnabled()) {
+                event.player = player.getName().getString();
+                event.dimension = dimensionName;
             }
             
             // Only teleport if player is not already in the target dimension or at the correct position
-            if (player.level().dimension().equals(dimensionKey) && useCustomCoordinates &&
+            if (player.level().dimension().equals(dimensionKey) && config.hasSpawnCoordinates() &&
                 Math.abs(player.getX() - x) < 1.0 && 
                 Math.abs(player.getY() - y) < 1.0 && 
                 Math.abs(player.getZ() - z) < 1.0) {
                 LOGGER.debug("Player is already at target location in dimension: {}", dimensionName);
+                SpawnedPlayersData.get(player.getServer()).markSpawned(player.getUUID());
+                event.chunkAlreadyLoaded = true;
+                event.chunkReady = true;
+                event.outcome = "already_there";
+                event.commit();
                 return;
             }
             
-            String locationDesc = useCustomCoordinates ? 
-                String.format("at coordinates (%.1f, %.1f, %.1f)", x, y, z) : 
-                "at default spawn";
-            String facingDesc = useCustomFacing ? 
-                String.format("facing %.1f degrees", Double.parseDouble(facing)) : 
-                "with default facing";
-                
-            LOGGER.info("Teleporting player {} to dimension: {} {} {}", 
-                       player.getName().getString(), dimensionName, locationDesc, facingDesc);
+            // Load the target chunk in the background first so the teleport doesn't generate it on the server thread
+            ChunkPos targetChunk = new ChunkPos(BlockPos.containing(x, y, z));
+            event.chunkAlreadyLoaded = targetLevel.hasChunk(targetChunk.x, targetChunk.z);
+            long chunkRequested = System.nanoTime();
+            SpawnChunkLoader.requestChunk(targetLevel, targetChunk, config.spawnChunkTimeoutTicks())
+                .thenAccept(ready -> {
+                    AutoloaderMetrics.SPAWN_CHUNK_WAIT.record(System.nanoTime() - chunkRequested);
+                    event.chunkReady = ready;
+                    if (player.hasDisconnected()) {
+                        SpawnChunkLoader.releaseChunk(targetLevel, targetChunk);
+                        event.outcome = "disconnected";
+                        event.commit();
+                        return;
+                    }
+                    if (!ready && config.spawnTimeoutAction() == AutoloaderConfigSimple.SpawnTimeoutAction.STAY) {
+                        SpawnChunkLoader.releaseChunk(targetLevel, targetChunk);
+                        LOGGER.warn("Spawn chunk not ready - leaving player {} at their current position", player.getName().getString());
+                        event.outcome = "stayed";
+                        event.commit();
+                        return;
+                    }
+                    // Spread login bursts over several ticks - the chunk stays held until the teleport ran
+                    TeleportScheduler.enqueue(player, targetLevel, targetChunk, x, y, z, yRot, config, event);
+                });
+            
+        } catch (Exception e) {
+            LOGGER.error("Failed to teleport player to dimension: {}", dimensionName, e);
+        }
+    }
+    
+    /**
+     * Pick the spawn coordinates and facing for a player
+     *
+     * @param sharedSpawnPos the target level's world spawn, used if no coordinates are configured
+     * @param currentYRot    the player's current facing, kept if no facing is configured
+     */
+    static SpawnTarget resolveSpawnTarget(ConfigSnapshot config, BlockPos sharedSpawnPos, float currentYRot) {
+        // Coordinates and facing were parsed when the config was loaded
+        float yRot = config.hasSpawnFacing() ? config.spawnYaw() : currentYRot;
+        if (config.hasSpawnCoordinates()) {
+            return new SpawnTarget(config.spawnX(), config.spawnY(), config.spawnZ(), yRot);
+        }
+        return new SpawnTarget(sharedSpawnPos.getX(), sharedSpawnPos.getY(), sharedSpawnPos.getZ(), yRot);
+    }
+    
+    static void performTeleport(ServerPlayer player, ServerLevel targetLevel, double x, double y, double z,
+                                        float yRot, ConfigSnapshot config, AutoloaderEvents.SpawnTeleport event) {
+        String dimensionName = config.playerSpawnDimension();
+        try {
+            LOGGER.info("Teleporting player {} to dimension: {} {}", 
+                       player.getName().getString(), dimensionName, config.spawnDescription());
             
             // Use vanilla teleportation method
             player.teleportTo(targetLevel, x, y, z, yRot, 0.0f);
+            SpawnedPlayersData.get(player.getServer()).markSpawned(player.getUUID());
                 
-            LOGGER.info("Successfully teleported player to {}", dimensionName);
+            LOGGER.debug("Successfully teleported player to {}", dimensionName);
+            event.outcome = "teleported";
             
         } catch (Exception e) {
             LOGGER.error("Failed to teleport player to dimension: {}", dimensionName, e);
+            event.outcome = "failed";
+        }
+        event.commit();
+    }
+    
+    /**
+     * Keep the area around the custom spawn loaded, like vanilla does for the overworld spawn
+     */
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        try {
+            ConfigSnapshot config = ConfigSnapshot.current();
+            if (config == null || !config.customSpawnEnabled() || config.spawnKeepLoadedRadius() <= 0) {
+                return;
+            }
+            
+            ServerLevel level = config.spawnDimensionKey() == null ? null : event.getServer().getLevel(config.spawnDimensionKey());
+            if (level == null) {
+                LOGGER.warn("Cannot keep spawn area loaded - dimension does not exist: {}", config.playerSpawnDimension());
+                return;
+            }
+            
+            ChunkPos center = config.hasSpawnCoordinates()
+                ? new ChunkPos(BlockPos.containing(config.spawnX(), config.spawnY(), config.spawnZ()))
+                : new ChunkPos(level.getSharedSpawnPos());
+            int radius = config.spawnKeepLoadedRadius();
+            
+            level.getChunkSource().addRegionTicket(SPAWN_KEEP_LOADED, center, radius, center);
+            keptLoadedLevel = level;
+            keptLoadedChunk = center;
+            keptLoadedRadius = radius;
+            
+            // A region ticket of radius r fully loads every chunk within r of the center;
+            // block ticking reaches r - 1 and entity ticking r - 2
+            int fullChunks = square(2 * radius + 1);
+            int tickingChunks = square(2 * radius - 1);
+            int entityTickingChunks = radius >= 2 ? square(2 * radius - 3) : 0;
+            LOGGER.info("Keeping spawn area loaded in {} around chunk {}: radius {} = {} loaded chunks ({} ticking, {} entity ticking)",
+                       config.playerSpawnDimension(), center, radius, fullChunks, tickingChunks, entityTickingChunks);
+            
+        } catch (Exception e) {
+            LOGGER.error("Failed to keep spawn area loaded", e);
         }
     }
     
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        if (keptLoadedLevel != null) {
+            keptLoadedLevel.getChunkSource().removeRegionTicket(SPAWN_KEEP_LOADED, keptLoadedChunk, keptLoadedRadius, keptLoadedChunk);
+            LOGGER.debug("Released spawn area chunk ticket");
+            keptLoadedLevel = null;
+            keptLoadedChunk = null;
+            keptLoadedRadius = 0;
+        }
+    }
+    
+    private static int square(int value) {
+        return value * value;
+    }
+    
     /**
      * Get the dimension configuration for Lost Cities
      */
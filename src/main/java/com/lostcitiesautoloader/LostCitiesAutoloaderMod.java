@@ -12,6 +12,8 @@ import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.level.LevelEvent;
 import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
 import org.slf4j.Logger;
 
 import java.io.IOException;
@@ -54,9 +56,19 @@ public class LostCitiesAutoloaderMod {
         // Setup configuration directory
         setupConfigDirectory();
         
+        // Parse every preset in the background so a broken one is reported before anyone selects it
+        PresetRegistry.scanAsync();
+        
         // Initialize dimension management
         LOGGER.info("Initializing dimension management features");
         
+        // Connect to Lost Cities off the setup thread - joined at the latest when the server starts
+        LostCitiesConnection.prewarm().thenAccept(available -> {
+            if (available) {
+                ReadinessTracker.markReached(ReadinessTracker.Stage.LOST_CITIES_PRESENT);
+            }
+        });
+        
         // DON'T access config values during setup - this causes circular dependency
         LOGGER.info("Common setup complete - config will be accessed later during server startup");
     }
@@ -126,19 +138,30 @@ public class LostCitiesAutoloaderMod {
     public void onServerAboutToStart(ServerAboutToStartEvent event) {
         LOGGER.info("Lost Cities Autoloader - Server About To Start (applying configuration early)");
         
-        // This is the optimal time to apply Lost Cities configuration
-        // It happens after configs are loaded but before world generation begins
-        // At this point biome modifiers and world generation settings are being applied
-        AutoloaderProfileManager.loadAndApplyConfiguration();
+        // Read what this world was last generated with before anything is applied - the apply compares against it
+        AppliedStateData.readFromWorld(event.getServer());
+        
+        if (LostCitiesConnection.isAvailable()) {
+            ReadinessTracker.markReached(ReadinessTracker.Stage.LOST_CITIES_PRESENT);
+        }
+        ReadinessTracker.probeProfiles();
+        // This is the optimal time to apply Lost Cities configuration: configs are loaded but
+        // world generation has not begun. Reaching this stage fires the apply if nothing else is missing
+        ReadinessTracker.markReached(ReadinessTracker.Stage.SERVER_STARTING);
     }
 
     @SubscribeEvent
     public void onServerStarting(ServerStartingEvent event) {
         LOGGER.info("Lost Cities Autoloader - Server Starting");
         
-        // Additional safety check - apply configuration again if needed
-        // This ensures we catch any cases where the early application didn't work
-        AutoloaderProfileManager.loadAndApplyConfiguration();
+        // Lost Cities may register its profiles late - the apply fires as soon as they show up
+        ReadinessTracker.probeProfiles();
+        if (!ReadinessTracker.isReady()) {
+            LOGGER.info("Lost Cities Autoloader still waiting - {}", ReadinessTracker.describe());
+        }
+        
+        // Pick up preset edits while the server is running
+        ConfigFileWatcher.startWatching();
     }
 
     @SubscribeEvent
@@ -151,9 +174,22 @@ public class LostCitiesAutoloaderMod {
         
         LOGGER.debug("Level loaded: {}", event.getLevel());
         
-        // Try to apply the configuration when each world loads
-        // This ensures we catch newly created worlds
-        AutoloaderProfileManager.loadAndApplyConfiguration();
+        // Only probes until the profiles are registered - the apply itself fires once
+        ReadinessTracker.probeProfiles();
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        ConfigFileWatcher.stopWatching();
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        // The next server start (e.g. another singleplayer world) must apply again
+        ProfileApplyEngine.reset();
+        ReadinessTracker.onServerStopped();
+        // Pick up presets edited while no server was running
+        PresetRegistry.scanAsync();
     }
 
     public void onConfigLoading(ModConfigEvent.Loading event) {
@@ -167,6 +203,12 @@ public class LostCitiesAutoloaderMod {
             LOGGER.debug("Config loaded - player_spawn_coordinates: {}", AutoloaderConfigSimple.PLAYER_SPAWN_COORDINATES.get());
             LOGGER.debug("Config loaded - player_spawn_facing: '{}'", AutoloaderConfigSimple.PLAYER_SPAWN_FACING.get());
             LOGGER.debug("Config loaded - lost_city_dimension: {}", AutoloaderConfigSimple.LOST_CITY_DIMENSION.get());
+            
+            // Pre-parse the values read on hot paths such as player login
+            ConfigSnapshot.publish();
+            
+            ReadinessTracker.markReached(ReadinessTracker.Stage.CONFIG_LOADED);
+            updateAutoloaderEnabled();
         }
     }
 
@@ -181,6 +223,21 @@ public class LostCitiesAutoloaderMod {
             LOGGER.debug("Config reloaded - player_spawn_coordinates: {}", AutoloaderConfigSimple.PLAYER_SPAWN_COORDINATES.get());
             LOGGER.debug("Config reloaded - player_spawn_facing: '{}'", AutoloaderConfigSimple.PLAYER_SPAWN_FACING.get());
             LOGGER.debug("Config reloaded - lost_city_dimension: {}", AutoloaderConfigSimple.LOST_CITY_DIMENSION.get());
+            
+            ConfigSnapshot.publish();
+            updateAutoloaderEnabled();
+            
+            // Values may have changed the selected preset - merged with any pending file events
+            ConfigFileWatcher.requestReload();
+        }
+    }
+
+    private void updateAutoloaderEnabled() {
+        if (AutoloaderConfigSimple.ENABLE_AUTOLOADER.get()) {
+            ReadinessTracker.markReached(ReadinessTracker.Stage.AUTOLOADER_ENABLED);
+        } else {
+            LOGGER.info("Lost Cities Autoloader is disabled in configuration");
+            ReadinessTracker.markLost(ReadinessTracker.Stage.AUTOLOADER_ENABLED);
         }
     }
 
@@ -0,0 +1,328 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Typed bridge to the Lost Cities internals used by the autoloader
+ *
+ * Every member is looked up once, when this class is initialized, and kept in a
+ * static final MethodHandle so the JIT can inline the accessors below. Callers check
+ * {@link #isAvailable()} or {@link #has(Capability)} once and then use the accessors
+ * directly - lookup failures never show up in the apply path.
+ */
+public final class LostCitiesBridge {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final String CONFIG_CLASS = "mcjty.lostcities.setup.Config";
+    private static final String PROFILE_SETUP_CLASS = "mcjty.lostcities.config.ProfileSetup";
+    private static final String FEATURE_CLASS = "mcjty.lostcities.worldgen.LostCityFeature";
+
+    /**
+     * Lost Cities members the bridge knows how to access
+     */
+    public enum Capability {
+        PROFILE_FROM_CLIENT("Config.profileFromClient", true),
+        JSON_FROM_CLIENT("Config.jsonFromClient", true),
+        STANDARD_PROFILES("ProfileSetup.STANDARD_PROFILES", true),
+        DIMENSIONS_WITH_PROFILES("Config.dimensionsWithProfiles", false),
+        RESET_PROFILE_CACHE("Config.resetProfileCache()", false),
+        DIMENSION_INFO_DIRTY_COUNTER("LostCityFeature.globalDimensionInfoDirtyCounter", false);
+
+        private final String memberName;
+        private final boolean required;
+
+        Capability(String memberName, boolean required) {
+            this.memberName = memberName;
+            this.required = required;
+        }
+
+        public String getMemberName() {
+            return memberName;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+    }
+
+    private static final Set<Capability> CAPABILITIES = EnumSet.noneOf(Capability.class);
+
+    private static final MethodHandle PROFILE_FROM_CLIENT_GETTER;
+    private static final MethodHandle PROFILE_FROM_CLIENT_SETTER;
+    private static final MethodHandle JSON_FROM_CLIENT_GETTER;
+    private static final MethodHandle JSON_FROM_CLIENT_SETTER;
+    private static final MethodHandle STANDARD_PROFILES_GETTER;
+    private static final MethodHandle DIMENSIONS_WITH_PROFILES_GETTER;
+    // Null if the field is final - the list can then only be mutated in place
+    private static final MethodHandle DIMENSIONS_WITH_PROFILES_SETTER;
+    private static final MethodHandle RESET_PROFILE_CACHE;
+    private static final MethodHandle DIRTY_COUNTER_GETTER;
+    private static final MethodHandle DIRTY_COUNTER_SETTER;
+
+    static {
+        Class<?> configClass = findClass(CONFIG_CLASS);
+        Class<?> profileSetupClass = findClass(PROFILE_SETUP_CLASS);
+        Class<?> featureClass = findClass(FEATURE_CLASS);
+
+        Field profileField = findField(configClass, "profileFromClient");
+        PROFILE_FROM_CLIENT_GETTER = getter(profileField, String.class);
+        PROFILE_FROM_CLIENT_SETTER = setter(profileField, String.class);
+        register(Capability.PROFILE_FROM_CLIENT, PROFILE_FROM_CLIENT_GETTER, PROFILE_FROM_CLIENT_SETTER);
+
+        Field jsonField = findField(configClass, "jsonFromClient");
+        JSON_FROM_CLIENT_GETTER = getter(jsonField, String.class);
+        JSON_FROM_CLIENT_SETTER = setter(jsonField, String.class);
+        register(Capability.JSON_FROM_CLIENT, JSON_FROM_CLIENT_GETTER, JSON_FROM_CLIENT_SETTER);
+
+        STANDARD_PROFILES_GETTER = getter(findField(profileSetupClass, "STANDARD_PROFILES"), Map.class);
+        register(Capability.STANDARD_PROFILES, STANDARD_PROFILES_GETTER);
+
+        Field dimensionsField = findField(configClass, "dimensionsWithProfiles");
+        DIMENSIONS_WITH_PROFILES_GETTER = getter(dimensionsField, List.class);
+        DIMENSIONS_WITH_PROFILES_SETTER = setter(dimensionsField, List.class);
+        register(Capability.DIMENSIONS_WITH_PROFILES, DIMENSIONS_WITH_PROFILES_GETTER);
+
+        RESET_PROFILE_CACHE = staticMethod(configClass, "resetProfileCache");
+        register(Capability.RESET_PROFILE_CACHE, RESET_PROFILE_CACHE);
+
+        Field dirtyCounterField = findField(featureClass, "globalDimensionInfoDirtyCounter");
+        DIRTY_COUNTER_GETTER = getter(dirtyCounterField, int.class);
+        DIRTY_COUNTER_SETTER = setter(dirtyCounterField, int.class);
+        register(Capability.DIMENSION_INFO_DIRTY_COUNTER, DIRTY_COUNTER_GETTER, DIRTY_COUNTER_SETTER);
+
+        LOGGER.info("Lost Cities bridge capabilities: {}", describeCapabilities());
+    }
+
+    private LostCitiesBridge() {
+    }
+
+    /**
+     * Check whether every required Lost Cities member was found
+     */
+    public static boolean isAvailable() {
+        for (Capability capability : Capability.values()) {
+            if (capability.isRequired() && !CAPABILITIES.contains(capability)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a specific Lost Cities member was found
+     */
+    public static boolean has(Capability capability) {
+        return CAPABILITIES.contains(capability);
+    }
+
+    /**
+     * Human readable report of which Lost Cities members were found
+     */
+    public static String describeCapabilities() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Capability capability : Capability.values()) {
+            joiner.add(capability.getMemberName() + "=" + (CAPABILITIES.contains(capability) ? "found" : "missing"));
+        }
+        return joiner.toString();
+    }
+
+    public static String getProfileFromClient() {
+        try {
+            return (String) PROFILE_FROM_CLIENT_GETTER.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(Capability.PROFILE_FROM_CLIENT, t);
+        }
+    }
+
+    public static void setProfileFromClient(String profile) {
+        try {
+            PROFILE_FROM_CLIENT_SETTER.invokeExact(profile);
+        } catch (Throwable t) {
+            throw rethrow(Capability.PROFILE_FROM_CLIENT, t);
+        }
+    }
+
+    public static String getJsonFromClient() {
+        try {
+            return (String) JSON_FROM_CLIENT_GETTER.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(Capability.JSON_FROM_CLIENT, t);
+        }
+    }
+
+    public static void setJsonFromClient(String json) {
+        try {
+            JSON_FROM_CLIENT_SETTER.invokeExact(json);
+        } catch (Throwable t) {
+            throw rethrow(Capability.JSON_FROM_CLIENT, t);
+        }
+    }
+
+    /**
+     * Lost Cities' registered profiles, keyed by profile name. May be empty before Lost Cities has set up.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, ?> getStandardProfiles() {
+        try {
+            Map<String, ?> profiles = (Map<String, ?>) (Map<?, ?>) STANDARD_PROFILES_GETTER.invokeExact();
+            return profiles == null ? Map.of() : profiles;
+        } catch (Throwable t) {
+            throw rethrow(Capability.STANDARD_PROFILES, t);
+        }
+    }
+
+    /**
+     * Lost Cities' live dimension=profile list, or null if the field is missing or unset
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> getDimensionsWithProfiles() {
+        if (DIMENSIONS_WITH_PROFILES_GETTER == null) {
+            return null;
+        }
+        try {
+            return (List<String>) (List<?>) DIMENSIONS_WITH_PROFILES_GETTER.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(Capability.DIMENSIONS_WITH_PROFILES, t);
+        }
+    }
+
+    /**
+     * Check whether the dimension=profile list can be replaced as a whole
+     */
+    public static boolean canReplaceDimensionsWithProfiles() {
+        return DIMENSIONS_WITH_PROFILES_SETTER != null;
+    }
+
+    /**
+     * Swap in a new dimension=profile list. Only valid if {@link #canReplaceDimensionsWithProfiles()}.
+     */
+    public static void setDimensionsWithProfiles(List<String> dimensionsWithProfiles) {
+        try {
+            DIMENSIONS_WITH_PROFILES_SETTER.invokeExact(dimensionsWithProfiles);
+        } catch (Throwable t) {
+            throw rethrow(Capability.DIMENSIONS_WITH_PROFILES, t);
+        }
+    }
+
+    /**
+     * Invalidate Lost Cities' profile and dimension info caches using whichever members are available
+     */
+    public static void refreshCaches() {
+        AutoloaderEvents.CacheRefresh event = new AutoloaderEvents.CacheRefresh();
+        event.begin();
+        boolean profileCacheReset = false;
+        boolean dimensionInfoInvalidated = false;
+        if (RESET_PROFILE_CACHE != null) {
+            try {
+                RESET_PROFILE_CACHE.invokeExact();
+                profileCacheReset = true;
+            } catch (Throwable t) {
+                LOGGER.debug("Could not reset Lost Cities profile cache", t);
+            }
+        }
+        if (DIRTY_COUNTER_GETTER != null) {
+            try {
+                int current = (int) DIRTY_COUNTER_GETTER.invokeExact();
+                DIRTY_COUNTER_SETTER.invokeExact(current + 1);
+                dimensionInfoInvalidated = true;
+            } catch (Throwable t) {
+                LOGGER.debug("Could not increment dimension info dirty counter", t);
+            }
+        }
+        if (event.shouldCommit()) {
+            event.profileCacheReset = profileCacheReset;
+            event.dimensionInfoInvalidated = dimensionInfoInvalidated;
+            event.commit();
+        }
+    }
+
+    private static IllegalStateException rethrow(Capability capability, Throwable t) {
+        if (t instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Failed to access " + capability.getMemberName(), t);
+    }
+
+    private static void register(Capability capability, MethodHandle... handles) {
+        for (MethodHandle handle : handles) {
+            if (handle == null) {
+                LOGGER.debug("Lost Cities member not available: {}", capability.getMemberName());
+                return;
+            }
+        }
+        CAPABILITIES.add(capability);
+    }
+
+    private static Class<?> findClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.debug("Lost Cities class not found: {}", name);
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> owner, String name) {
+        if (owner == null) {
+            return null;
+        }
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (Exception e) {
+            LOGGER.debug("Lost Cities field not found: {}.{}", owner.getSimpleName(), name);
+            return null;
+        }
+    }
+
+    private static MethodHandle getter(Field field, Class<?> type) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(type));
+        } catch (Exception e) {
+            LOGGER.debug("Cannot read Lost Cities field {}", field.getName(), e);
+            return null;
+        }
+    }
+
+    private static MethodHandle setter(Field field, Class<?> type) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, type));
+        } catch (Exception e) {
+            LOGGER.debug("Cannot write Lost Cities field {}", field.getName(), e);
+            return null;
+        }
+    }
+
+    private static MethodHandle staticMethod(Class<?> owner, String name) {
+        if (owner == null) {
+            return null;
+        }
+        try {
+            Method method = owner.getDeclaredMethod(name);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(void.class));
+        } catch (Exception e) {
+            LOGGER.debug("Lost Cities method not found: {}.{}()", owner.getSimpleName(), name);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazily established connection to the Lost Cities mod
+ *
+ * Connecting means initializing {@link LostCitiesBridge}, which loads Lost Cities' Config,
+ * ProfileSetup and LostCityFeature classes (running their static initializers) and makes
+ * their members accessible. {@link #prewarm()} starts that on a background thread during
+ * common setup; {@link #isAvailable()} joins it, starting it first if nothing touched
+ * Lost Cities yet. How long the connection took and how long callers waited for it are
+ * both logged.
+ */
+public class LostCitiesConnection {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static volatile ModPresence modPresence = ModPresence.FML;
+    private static volatile CompletableFuture<Boolean> connection;
+
+    /**
+     * Start connecting to Lost Cities in the background if that has not started yet
+     *
+     * @return a future completed with whether every required Lost Cities member was found
+     */
+    public static CompletableFuture<Boolean> prewarm() {
+        CompletableFuture<Boolean> future = connection;
+        if (future != null) {
+            return future;
+        }
+        synchronized (LostCitiesConnection.class) {
+            if (connection != null) {
+                return connection;
+            }
+            if (!modPresence.isLoaded("lostcities")) {
+                LOGGER.warn("Lost Cities mod not found - autoloader will not function");
+                connection = CompletableFuture.completedFuture(false);
+                return connection;
+            }
+
+            future = new CompletableFuture<>();
+            connection = future;
+            CompletableFuture<Boolean> target = future;
+            Thread thread = new Thread(() -> target.complete(connect()), "LostCitiesAutoloader-Connect");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(LostCitiesConnection.class.getClassLoader());
+            thread.start();
+            return future;
+        }
+    }
+
+    /**
+     * Check whether Lost Cities is present and every required member was found, waiting
+     * for the background connection if it is still running
+     */
+    public static boolean isAvailable() {
+        CompletableFuture<Boolean> future = prewarm();
+        if (future.isDone()) {
+            return future.join();
+        }
+        AutoloaderEvents.ReadinessWait event = new AutoloaderEvents.ReadinessWait();
+        event.begin();
+        long start = System.nanoTime();
+        boolean available = future.join();
+        long waited = System.nanoTime() - start;
+        event.stage = ReadinessTracker.Stage.LOST_CITIES_PRESENT.name();
+        event.blocking = true;
+        event.commit();
+        LOGGER.debug("Waited {} ms for the Lost Cities connection", TimeUnit.NANOSECONDS.toMillis(waited));
+        return available;
+    }
+
+    /**
+     * Answer mod presence from somewhere other than FML's mod list and forget any previous
+     * connection. For running the autoloader without Minecraft.
+     */
+    static synchronized void useModPresence(ModPresence presence) {
+        modPresence = presence;
+        connection = null;
+    }
+
+    private static boolean connect() {
+        long start = System.nanoTime();
+        boolean available;
+        try {
+            // Resolves every Lost Cities member once
+            available = LostCitiesBridge.isAvailable();
+        } catch (Throwable t) {
+            LOGGER.error("Failed to initialize the Lost Cities bridge", t);
+            return false;
+        }
+        long connectNanos = System.nanoTime() - start;
+
+        if (available) {
+            LOGGER.info("Successfully connected to Lost Cities mod in {} ms",
+                       TimeUnit.NANOSECONDS.toMillis(connectNanos));
+        } else {
+            LOGGER.error("Failed to connect to Lost Cities mod - {}", LostCitiesBridge.describeCapabilities());
+        }
+        return available;
+    }
+}
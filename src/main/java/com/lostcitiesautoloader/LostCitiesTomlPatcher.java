@@ -0,0 +1,177 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Patches the dimensionsWithProfiles setting in Lost Cities' common.toml
+ *
+ * The file is only written when the merged entries differ from what is already there,
+ * and writes go through a temp file that is atomically moved into place, so Lost Cities'
+ * config watcher never sees a half-written file or a no-op change. The rewritten file keeps
+ * the original's permissions.
+ */
+public class LostCitiesTomlPatcher {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public static final Path COMMON_CONFIG = Paths.get("config", "lostcities", "common.toml");
+
+    // The file the apply path patches and stamps - COMMON_CONFIG unless running without Minecraft
+    private static volatile Path commonConfig = COMMON_CONFIG;
+
+    private static final Pattern SETTING = Pattern.compile(
+            "^([ \\t]*)dimensionsWithProfiles[ \\t]*=[ \\t]*\\[(.*?)\\]", Pattern.MULTILINE | Pattern.DOTALL);
+    private static final Pattern ENTRY = Pattern.compile("\"([^\"]*)\"");
+
+    public enum Result {
+        UNCHANGED,
+        UPDATED,
+        MISSING_FILE,
+        MISSING_SETTING
+    }
+
+    /**
+     * Lost Cities' config file as seen by the apply path
+     */
+    static Path commonConfig() {
+        return commonConfig;
+    }
+
+    /**
+     * Patch and stamp a different file instead of Lost Cities' config. For running the
+     * autoloader without Minecraft.
+     */
+    static void useCommonConfig(Path configPath) {
+        commonConfig = configPath;
+    }
+
+    /**
+     * Set the profile of each given dimension, keeping entries for other dimensions
+     *
+     * @param dimensionProfiles dimension id to Lost Cities profile name
+     */
+    public static Result patchDimensionProfiles(Path configPath, Map<String, String> dimensionProfiles) throws IOException {
+        AutoloaderEvents.TomlRewrite event = new AutoloaderEvents.TomlRewrite();
+        event.begin();
+        Result result = null;
+        try {
+            result = patch(configPath, dimensionProfiles, event);
+            return result;
+        } finally {
+            if (event.shouldCommit()) {
+                event.dimensions = dimensionProfiles.toString();
+                event.result = result == null ? "FAILED" : result.name();
+                event.commit();
+            }
+        }
+    }
+
+    private static Result patch(Path configPath, Map<String, String> dimensionProfiles,
+                                AutoloaderEvents.TomlRewrite event) throws IOException {
+        if (!Files.exists(configPath)) {
+            return Result.MISSING_FILE;
+        }
+
+        byte[] raw = Files.readAllBytes(configPath);
+        event.bytesRead = raw.length;
+        String content = new String(raw, StandardCharsets.UTF_8);
+        Matcher matcher = SETTING.matcher(content);
+        if (!matcher.find()) {
+            return Result.MISSING_SETTING;
+        }
+
+        List<String> current = parseEntries(matcher.group(2));
+        List<String> merged = mergeEntries(current, dimensionProfiles);
+        if (merged.equals(current)) {
+            AutoloaderDiagnostics.record("toml", "{} already up to date: {}", configPath, current);
+            return Result.UNCHANGED;
+        }
+
+        String patched = content.substring(0, matcher.start())
+                + matcher.group(1) + "dimensionsWithProfiles = " + render(merged)
+                + content.substring(matcher.end());
+        byte[] patchedBytes = patched.getBytes(StandardCharsets.UTF_8);
+        writeAtomically(configPath, patchedBytes);
+        event.bytesWritten = patchedBytes.length;
+        AutoloaderDiagnostics.record("toml", "{} dimensionsWithProfiles rewritten: {} -> {}", configPath, current, merged);
+        return Result.UPDATED;
+    }
+
+    /**
+     * Merge dimension=profile updates into existing entries in one pass.
+     * Existing dimensions keep their position, new ones are appended in map order.
+     * Whitespace around an existing entry's dimension and profile is ignored, and an entry
+     * that already holds the wanted profile is kept exactly as written.
+     */
+    static List<String> mergeEntries(List<String> current, Map<String, String> dimensionProfiles) {
+        Map<String, String> remaining = new LinkedHashMap<>(dimensionProfiles);
+        List<String> merged = new ArrayList<>(current.size() + remaining.size());
+
+        for (String entry : current) {
+            int separator = entry.indexOf('=');
+            String dimension = (separator < 0 ? entry : entry.substring(0, separator)).trim();
+            String existing = separator < 0 ? null : entry.substring(separator + 1).trim();
+            String profile = remaining.remove(dimension);
+            merged.add(profile == null || profile.equals(existing) ? entry : dimension + "=" + profile);
+        }
+        for (Map.Entry<String, String> entry : remaining.entrySet()) {
+            merged.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return merged;
+    }
+
+    private static List<String> parseEntries(String arrayBody) {
+        List<String> entries = new ArrayList<>();
+        Matcher matcher = ENTRY.matcher(arrayBody);
+        while (matcher.find()) {
+            entries.add(matcher.group(1));
+        }
+        return entries;
+    }
+
+    private static String render(List<String> entries) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('"').append(entries.get(i)).append('"');
+        }
+        return builder.append(']').toString();
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            // createTempFile makes the file owner-only - give it the permissions it replaces
+            try {
+                Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+            } catch (UnsupportedOperationException e) {
+                // Not a POSIX file system - the temp file already has the usual permissions
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                LOGGER.debug("Atomic move not supported for {}, falling back to replace", target);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStartedEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link AutoloaderMetrics} while a server runs
+ *
+ * Two independent outlets, both off by default: an HTTP endpoint bound to the loopback
+ * address only, for a scraper running on the same host, and a .prom file rewritten on an
+ * interval for the node exporter's textfile collector. The file is replaced atomically so
+ * the collector never reads a partial file, and gets the default permissions for new files
+ * so a collector running as another user can read it.
+ */
+@EventBusSubscriber(modid = LostCitiesAutoloaderMod.MODID)
+public class MetricsExporter {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final long FINAL_WRITE_TIMEOUT_MS = 2000;
+
+    private static HttpServer httpServer = null;
+    private static ScheduledExecutorService textfileWriter = null;
+    private static Path textfile = null;
+
+    @SubscribeEvent
+    public static synchronized void onServerStarted(ServerStartedEvent event) {
+        int port = AutoloaderConfigSimple.METRICS_HTTP_PORT.get();
+        if (port > 0 && httpServer == null) {
+            startHttp(port);
+        }
+
+        String file = AutoloaderConfigSimple.METRICS_TEXTFILE.get();
+        if (!file.isBlank() && textfileWriter == null) {
+            startTextfile(Paths.get(file), AutoloaderConfigSimple.METRICS_TEXTFILE_INTERVAL_SECONDS.get());
+        }
+    }
+
+    @SubscribeEvent
+    public static synchronized void onServerStopped(ServerStoppedEvent event) {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            ((ExecutorService) httpServer.getExecutor()).shutdown();
+            httpServer = null;
+        }
+        if (textfileWriter != null) {
+            // Leave the final values behind rather than whatever the last interval caught. The
+            // write stays on the exporter thread: shutdown drops the periodic write but still
+            // runs this one, and the server thread waits for it only briefly
+            Path file = textfile;
+            textfileWriter.execute(() -> writeTextfile(file));
+            textfileWriter.shutdown();
+            try {
+                if (!textfileWriter.awaitTermination(FINAL_WRITE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    LOGGER.warn("Final autoloader metrics write to {} did not finish in {} ms", file, FINAL_WRITE_TIMEOUT_MS);
+                    textfileWriter.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                textfileWriter.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            textfileWriter = null;
+            textfile = null;
+        }
+    }
+
+    private static void startHttp(int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", MetricsExporter::handle);
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AutoloaderMetrics-Http");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            httpServer = server;
+            LOGGER.info("Serving autoloader metrics at http://{}:{}/metrics",
+                       InetAddress.getLoopbackAddress().getHostAddress(), port);
+        } catch (IOException e) {
+            LOGGER.error("Failed to start the autoloader metrics endpoint on port {}: {}", port, e.getMessage());
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = AutoloaderMetrics.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private static void startTextfile(Path file, int intervalSeconds) {
+        textfile = file;
+        textfileWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AutoloaderMetrics-Textfile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        textfileWriter.scheduleWithFixedDelay(() -> writeTextfile(file), 0, intervalSeconds, TimeUnit.SECONDS);
+        LOGGER.info("Writing autoloader metrics to {} every {} s", file.toAbsolutePath(), intervalSeconds);
+    }
+
+    private static void writeTextfile(Path file) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // The collector skips dot files and only reads *.prom, so the temp file is never picked
+            // up half-written. Not createTempFile - its owner-only mode would survive the move
+            Path temp = directory.resolve("." + file.getFileName() + ".tmp");
+            try {
+                Files.writeString(temp, AutoloaderMetrics.render(), StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write autoloader metrics to {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.lostcitiesautoloader;
+
+import net.neoforged.fml.ModList;
+
+/**
+ * Answers whether another mod is loaded
+ *
+ * In game this is FML's mod list. Outside a Minecraft boot, e.g. in tests or benchmarks
+ * against stand-in Lost Cities classes, there is no mod list and a fixed answer is used.
+ */
+@FunctionalInterface
+public interface ModPresence {
+    ModPresence FML = modId -> ModList.get().isLoaded(modId);
+
+    boolean isLoaded(String modId);
+}
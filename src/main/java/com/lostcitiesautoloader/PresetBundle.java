@@ -0,0 +1,289 @@
+package com.lostcitiesautoloader;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A single file holding many presets
+ *
+ * Two formats are supported: a JSON array of preset objects that each carry a "name"
+ * ({@code *.bundle.json}), or a zip of ordinary preset files ({@code *.zip}). Opening a
+ * bundle only streams through it to build a name index - the byte range of each preset
+ * object, or its zip entry - keeping at most one preset's bytes at a time. Loading a preset
+ * seeks straight to it and reads only its bytes. A preset is parsed the first time it is
+ * loaded and then kept, so memory and parse time follow the presets that are actually used
+ * rather than the size of the bundle.
+ */
+public class PresetBundle {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new Gson();
+
+    public static final String JSON_SUFFIX = ".bundle.json";
+    public static final String ZIP_SUFFIX = ".zip";
+
+    private final Path file;
+    private final boolean zip;
+    // Span for JSON bundles, entry name for zip bundles
+    private final Map<String, Object> locations;
+    private final Map<String, PresetCache.Preset> loaded = new ConcurrentHashMap<>();
+
+    /**
+     * Where a preset object sits in a JSON bundle
+     */
+    private record Span(long offset, int length) {
+    }
+
+    private PresetBundle(Path file, boolean zip, Map<String, Object> locations) {
+        this.file = file;
+        this.zip = zip;
+        this.locations = locations;
+    }
+
+    /**
+     * Check whether a file in the preset directory is a bundle
+     */
+    public static boolean isBundle(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(JSON_SUFFIX) || name.endsWith(ZIP_SUFFIX);
+    }
+
+    /**
+     * Index the presets in a bundle without parsing them
+     */
+    public static PresetBundle open(Path file) throws IOException {
+        boolean zip = file.getFileName().toString().endsWith(ZIP_SUFFIX);
+        Map<String, Object> locations = zip ? indexZip(file) : indexJson(file);
+        LOGGER.debug("Indexed {} presets in bundle {}", locations.size(), file.getFileName());
+        return new PresetBundle(file, zip, Collections.unmodifiableMap(locations));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Names of the presets in this bundle
+     */
+    public Set<String> names() {
+        return locations.keySet();
+    }
+
+    /**
+     * Load a single preset, parsing only that preset
+     *
+     * @return the preset, or null if the bundle has no preset with that name
+     * @throws IOException if the bundle cannot be read or the preset is invalid
+     */
+    public PresetCache.Preset load(String name) throws IOException {
+        Object location = locations.get(name);
+        if (location == null) {
+            return null;
+        }
+        PresetCache.Preset preset = loaded.get(name);
+        if (preset == null) {
+            AutoloaderEvents.PresetRead event = new AutoloaderEvents.PresetRead();
+            event.begin();
+            preset = zip ? loadZipEntry((String) location, event) : loadJsonElement(name, (Span) location, event);
+            loaded.put(name, preset);
+            if (event.shouldCommit()) {
+                event.profile = preset.profileName();
+                event.commit();
+            }
+        }
+        return preset;
+    }
+
+    private static Map<String, Object> indexJson(Path file) throws IOException {
+        Map<String, Object> locations = new HashMap<>();
+        // Gson does not report byte offsets, so the array is split into its elements here -
+        // only brackets outside strings matter for that - and each object is read for its name
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream element = new ByteArrayOutputStream();
+            int depth = 0;
+            int position = -1;
+            long offset = -1;
+            long start = -1;
+            boolean inString = false;
+            boolean escaped = false;
+            boolean otherValue = false;
+            boolean closed = false;
+            int b;
+            while (!closed && (b = input.read()) != -1) {
+                offset++;
+                if (start >= 0) {
+                    element.write(b);
+                }
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                    continue;
+                }
+                if (depth == 0) {
+                    // Anything but the array's opening bracket must be whitespace or a UTF-8 byte order mark
+                    if (b == '[') {
+                        depth = 1;
+                    } else if (!Character.isWhitespace(b) && b != 0xEF && b != 0xBB && b != 0xBF) {
+                        throw new IOException("Invalid preset bundle: " + file + " is not a JSON array");
+                    }
+                    continue;
+                }
+                if (depth == 1 && start < 0 && !otherValue && b != ',' && b != ']' && !Character.isWhitespace(b)) {
+                    position++;
+                    if (b == '{') {
+                        start = offset;
+                        element.reset();
+                        element.write(b);
+                    } else {
+                        otherValue = true;
+                        LOGGER.warn("Entry {} in preset bundle {} is not an object", position, file.getFileName());
+                    }
+                }
+                switch (b) {
+                    case '"' -> inString = true;
+                    case '{', '[' -> depth++;
+                    case '}', ']' -> {
+                        depth--;
+                        if (depth == 0) {
+                            closed = true;
+                        } else if (depth == 1 && start >= 0) {
+                            indexJsonElement(file, locations, position, new Span(start, element.size()), element.toByteArray());
+                            start = -1;
+                        }
+                    }
+                    case ',' -> {
+                        if (depth == 1) {
+                            otherValue = false;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+            if (!closed) {
+                throw new IOException("Invalid preset bundle: " + file + " ends before its array does");
+            }
+        }
+        return locations;
+    }
+
+    private static void indexJsonElement(Path file, Map<String, Object> locations, int position, Span span,
+                                         byte[] content) throws IOException {
+        // Read only the name; every other value is skipped without being built
+        String name = null;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("name") && reader.peek() == JsonToken.STRING) {
+                    name = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | MalformedJsonException e) {
+            throw new IOException("Invalid preset bundle: " + file, e);
+        }
+
+        if (name == null) {
+            LOGGER.warn("Entry {} in preset bundle {} has no name", position, file.getFileName());
+        } else if (locations.putIfAbsent(name, span) != null) {
+            LOGGER.warn("Preset bundle {} contains '{}' more than once - using the first", file.getFileName(), name);
+        }
+    }
+
+    private static Map<String, Object> indexZip(Path file) throws IOException {
+        Map<String, Object> locations = new HashMap<>();
+        // Only the central directory is read here
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            zipFile.stream()
+                    .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".json"))
+                    .forEach(entry -> {
+                        String entryName = entry.getName();
+                        String name = entryName.substring(entryName.lastIndexOf('/') + 1, entryName.length() - ".json".length());
+                        if (locations.putIfAbsent(name, entryName) != null) {
+                            LOGGER.warn("Preset bundle {} contains '{}' more than once - using the first", file.getFileName(), name);
+                        }
+                    });
+        }
+        return locations;
+    }
+
+    private PresetCache.Preset loadJsonElement(String name, Span span, AutoloaderEvents.PresetRead event) throws IOException {
+        String source = file.getFileName() + "#" + name;
+        event.source = source;
+        ByteBuffer buffer = ByteBuffer.allocate(span.length());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(span.offset());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Preset bundle changed while loading: " + source);
+                }
+            }
+        }
+        try {
+            JsonElement element = JsonParser.parseString(new String(buffer.array(), StandardCharsets.UTF_8));
+            if (!element.isJsonObject()) {
+                throw new IOException("Preset bundle changed while loading: " + source);
+            }
+            JsonObject config = element.getAsJsonObject();
+            // The canonical form of the preset object stands in for the raw file bytes
+            byte[] content = GSON.toJson(config).getBytes(StandardCharsets.UTF_8);
+            event.bytesRead = content.length;
+            return PresetCache.parse(source, config, content);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid preset: " + source, e);
+        }
+    }
+
+    private PresetCache.Preset loadZipEntry(String entryName, AutoloaderEvents.PresetRead event) throws IOException {
+        String source = file.getFileName() + "!" + entryName;
+        event.source = source;
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            ZipEntry entry = zipFile.getEntry(entryName);
+            if (entry == null) {
+                throw new IOException("Preset bundle changed while loading: " + source);
+            }
+            byte[] content;
+            try (InputStream input = zipFile.getInputStream(entry)) {
+                content = input.readAllBytes();
+            }
+            event.bytesRead = content.length;
+            JsonObject config = JsonParser.parseString(new String(content, StandardCharsets.UTF_8)).getAsJsonObject();
+            return PresetCache.parse(source, config, content);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid preset: " + source, e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.lostcitiesautoloader;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches parsed autoloader presets so repeated applies only cost a stat call
+ *
+ * Entries are revalidated against the file's size and last modified time before being
+ * reused, and the config file watcher invalidates them as soon as a preset changes. Files
+ * that failed to parse are cached with their error, so they are not re-read either.
+ */
+public class PresetCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new Gson();
+
+    private static final Map<Path, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    /**
+     * A parsed preset file
+     *
+     * @param profileName  the Lost Cities profile the preset selects, null if it is inherited
+     * @param settingsJson the preset's settings serialized to canonical JSON, or null if it has none
+     * @param contentHash  SHA-256 of the raw file contents
+     * @param parent       name of the preset this one extends, null if it extends none
+     */
+    public record Preset(String profileName, String settingsJson, String contentHash, String parent) {
+    }
+
+    // failure is set instead of preset if the file could not be parsed
+    private record Entry(Preset preset, IOException failure, FileTime lastModified, long size) {
+    }
+
+    /**
+     * Get the parsed preset for a file, reading it only if it changed since it was cached
+     *
+     * @return the preset, or null if the file does not exist
+     * @throws IOException if the file cannot be read or is not a valid preset
+     */
+    public static Preset get(Path file) throws IOException {
+        Path key = normalize(file);
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            ENTRIES.remove(key);
+            return null;
+        }
+
+        Entry cached = ENTRIES.get(key);
+        if (cached != null && cached.size() == attributes.size()
+                && cached.lastModified().equals(attributes.lastModifiedTime())) {
+            AutoloaderMetrics.PRESET_CACHE_HITS.increment();
+            if (cached.failure() != null) {
+                throw cached.failure();
+            }
+            return cached.preset();
+        }
+        AutoloaderMetrics.PRESET_CACHE_MISSES.increment();
+
+        LOGGER.debug("Preset cache miss: {}", key.getFileName());
+        AutoloaderEvents.PresetRead event = new AutoloaderEvents.PresetRead();
+        event.begin();
+        byte[] content = Files.readAllBytes(key);
+        Preset preset;
+        try {
+            preset = parse(key, content);
+        } catch (IOException e) {
+            ENTRIES.put(key, new Entry(null, e, attributes.lastModifiedTime(), attributes.size()));
+            throw e;
+        }
+        if (event.shouldCommit()) {
+            event.source = key.getFileName().toString();
+            event.profile = preset.profileName();
+            event.bytesRead = content.length;
+            event.commit();
+        }
+        ENTRIES.put(key, new Entry(preset, null, attributes.lastModifiedTime(), attributes.size()));
+        return preset;
+    }
+
+    /**
+     * Drop the cached entry for a file
+     */
+    public static void invalidate(Path file) {
+        if (ENTRIES.remove(normalize(file)) != null) {
+            LOGGER.debug("Invalidated cached preset: {}", file.getFileName());
+        }
+    }
+
+    /**
+     * Drop every cached preset
+     */
+    public static void invalidateAll() {
+        ENTRIES.clear();
+    }
+
+    private static Preset parse(Path file, byte[] content) throws IOException {
+        try {
+            JsonObject config = JsonParser.parseString(new String(content, StandardCharsets.UTF_8)).getAsJsonObject();
+            return parse(file.toString(), config, content);
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid preset file: " + file, e);
+        }
+    }
+
+    /**
+     * Build a preset from an already parsed preset object
+     *
+     * @param source  where the preset came from, for error messages
+     * @param content the bytes the content hash is computed from
+     */
+    static Preset parse(String source, JsonObject config, byte[] content) throws IOException {
+        try {
+            JsonElement parent = config.get("extends");
+            if (parent != null && !parent.isJsonPrimitive()) {
+                throw new IOException("Preset 'extends' must be a preset name: " + source);
+            }
+            // A preset that extends another may inherit its profile
+            JsonElement profile = config.get("profile");
+            if (profile == null ? parent == null : !profile.isJsonPrimitive()) {
+                throw new IOException("Preset has no 'profile' entry: " + source);
+            }
+
+            String settingsJson = config.has("settings") ? GSON.toJson(config.get("settings")) : null;
+            String contentHash = HexFormat.of().formatHex(ProfileApplyEngine.newDigest().digest(content));
+            return new Preset(profile == null ? null : profile.getAsString(), settingsJson, contentHash,
+                    parent == null ? null : parent.getAsString());
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid preset: " + source, e);
+        }
+    }
+
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,325 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Index of every preset in config/lost_cities_autoloader/
+ *
+ * The directory is scanned in the background and the presets are parsed in parallel on a
+ * small bounded pool, so a large shared preset directory does not hold up startup. The
+ * result is published as an immutable index by preset name and by profile; selecting a
+ * preset is then a map lookup. Broken presets are kept in the index with their error, so
+ * they are reported at startup instead of when someone switches to them. The config file
+ * watcher keeps the index current while the server runs.
+ *
+ * Presets inside {@link PresetBundle}s are only indexed by name during the scan and parsed
+ * when first looked up. A preset file takes precedence over a bundled preset of the same name.
+ */
+public class PresetRegistry {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String EXTENSION = ".json";
+    private static final int MAX_SCAN_THREADS = 4;
+
+    /**
+     * A scanned preset file
+     *
+     * @param preset null if the file could not be parsed
+     * @param error  why the file could not be parsed, null if it was
+     */
+    public record Entry(String name, PresetCache.Preset preset, String error) {
+    }
+
+    private record Index(Map<String, Entry> byName, Map<String, List<String>> namesByProfile,
+                         Map<Path, PresetBundle> bundles, Map<String, PresetBundle> bundleByName) {
+        static final Index EMPTY = new Index(Map.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    private static volatile Index index = Index.EMPTY;
+    private static volatile CompletableFuture<Void> scan = CompletableFuture.completedFuture(null);
+    // Index that was last checked against Lost Cities' profiles
+    private static Index validatedIndex = null;
+
+    /**
+     * Rescan the preset directory in the background
+     */
+    public static synchronized CompletableFuture<Void> scanAsync() {
+        if (!scan.isDone()) {
+            return scan;
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        scan = future;
+        Thread thread = new Thread(() -> {
+            try {
+                scanNow();
+            } catch (Throwable t) {
+                LOGGER.error("Failed to scan autoloader presets", t);
+            } finally {
+                future.complete(null);
+            }
+        }, "PresetRegistry-Scan");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /**
+     * Look up a preset by name, waiting for a running scan first. An indexed preset file is
+     * revalidated by size and modification time, so an edit the config file watcher did not
+     * see - e.g. with hot reload off - is still picked up.
+     *
+     * @param name the preset name, with or without the .json extension
+     * @return the entry, or null if no such preset was found
+     */
+    public static Entry get(String name) {
+        scan.join();
+        Index current = index;
+        String presetName = stripExtension(name);
+        Entry entry = current.byName().get(presetName);
+        if (entry != null) {
+            // A stat call unless the file changed - then it is parsed again
+            Path file = AutoloaderProfileManager.getPresetDirectory().resolve(presetName + EXTENSION);
+            Entry fresh = read(file);
+            if (!entry.equals(fresh)) {
+                report(file, fresh);
+                replace(presetName, fresh);
+                if (fresh == null) {
+                    // Deleted - a bundled preset of the same name is no longer shadowed
+                    return get(presetName);
+                }
+            }
+            return fresh;
+        }
+
+        PresetBundle bundle = current.bundleByName().get(presetName);
+        if (bundle == null) {
+            return null;
+        }
+        try {
+            PresetCache.Preset preset = bundle.load(presetName);
+            return preset == null ? null : new Entry(presetName, preset, null);
+        } catch (IOException e) {
+            String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            LOGGER.warn("Invalid autoloader preset {} in bundle {}: {}", presetName, bundle.getFile().getFileName(), error);
+            return new Entry(presetName, null, error);
+        }
+    }
+
+    /**
+     * Re-parse changed preset files and publish an updated index. Deleted files are dropped.
+     */
+    public static void refresh(Collection<Path> changedPresets) {
+        scan.join();
+        synchronized (PresetRegistry.class) {
+            Map<String, Entry> byName = new HashMap<>(index.byName());
+            Map<Path, PresetBundle> bundles = new HashMap<>(index.bundles());
+            for (Path file : changedPresets) {
+                if (PresetBundle.isBundle(file)) {
+                    // Any preset may extend one from the bundle
+                    PresetResolver.invalidateAll();
+                    PresetBundle bundle = openBundle(file);
+                    if (bundle == null) {
+                        bundles.remove(file.toAbsolutePath().normalize());
+                    } else {
+                        bundles.put(file.toAbsolutePath().normalize(), bundle);
+                    }
+                    continue;
+                }
+                PresetResolver.invalidate(nameOf(file));
+                Entry entry = load(file);
+                if (entry == null) {
+                    byName.remove(nameOf(file));
+                } else {
+                    byName.put(entry.name(), entry);
+                }
+            }
+            index = buildIndex(byName, bundles);
+        }
+    }
+
+    // Publish one re-parsed preset file. The resolver is not invalidated: get is called while
+    // resolving this very preset, and refresh does that for changes the watcher reports.
+    private static synchronized void replace(String name, Entry entry) {
+        Map<String, Entry> byName = new HashMap<>(index.byName());
+        if (entry == null) {
+            byName.remove(name);
+        } else {
+            byName.put(name, entry);
+        }
+        index = buildIndex(byName, index.bundles());
+    }
+
+    /**
+     * Report presets whose profile is not one of Lost Cities' profiles. Only checks once per index.
+     *
+     * @return the number of presets with an unknown profile
+     */
+    public static int validate(Map<String, ?> standardProfiles) {
+        // Not while holding the lock - the scan needs it to publish its index
+        scan.join();
+        Index current;
+        synchronized (PresetRegistry.class) {
+            current = index;
+            if (current == validatedIndex) {
+                return 0;
+            }
+            validatedIndex = current;
+        }
+
+        int unknown = 0;
+        for (Map.Entry<String, List<String>> profile : current.namesByProfile().entrySet()) {
+            if (!standardProfiles.containsKey(profile.getKey())) {
+                LOGGER.warn("Presets {} use profile '{}', which Lost Cities does not have", profile.getValue(), profile.getKey());
+                unknown += profile.getValue().size();
+            }
+        }
+        return unknown;
+    }
+
+    private static void scanNow() throws IOException {
+        Path presetDir = AutoloaderProfileManager.getPresetDirectory();
+        if (!Files.isDirectory(presetDir)) {
+            index = Index.EMPTY;
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Path> files;
+        List<Path> bundleFiles;
+        try (Stream<Path> stream = Files.list(presetDir)) {
+            List<Path> all = stream.toList();
+            bundleFiles = all.stream().filter(PresetBundle::isBundle).toList();
+            files = all.stream()
+                    .filter(file -> file.getFileName().toString().endsWith(EXTENSION) && !PresetBundle.isBundle(file))
+                    .toList();
+        }
+
+        int threads = Math.max(1, Math.min(MAX_SCAN_THREADS, Math.min(files.size(), Runtime.getRuntime().availableProcessors())));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "PresetRegistry-Parse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, Entry> byName = new HashMap<>();
+        Map<Path, PresetBundle> bundles = new HashMap<>();
+        try {
+            List<CompletableFuture<PresetBundle>> bundleScans = new ArrayList<>(bundleFiles.size());
+            for (Path file : bundleFiles) {
+                bundleScans.add(CompletableFuture.supplyAsync(() -> openBundle(file), pool));
+            }
+            List<CompletableFuture<Entry>> parses = new ArrayList<>(files.size());
+            for (Path file : files) {
+                parses.add(CompletableFuture.supplyAsync(() -> load(file), pool));
+            }
+            for (CompletableFuture<Entry> parse : parses) {
+                Entry entry = parse.join();
+                if (entry != null) {
+                    byName.put(entry.name(), entry);
+                }
+            }
+            for (CompletableFuture<PresetBundle> bundleScan : bundleScans) {
+                PresetBundle bundle = bundleScan.join();
+                if (bundle != null) {
+                    bundles.put(bundle.getFile().toAbsolutePath().normalize(), bundle);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Index scanned = buildIndex(byName, bundles);
+        synchronized (PresetRegistry.class) {
+            index = scanned;
+            PresetResolver.invalidateAll();
+        }
+        long invalid = byName.values().stream().filter(entry -> entry.error() != null).count();
+        LOGGER.info("Indexed {} autoloader presets ({} invalid) and {} bundled presets in {} ms using {} thread(s)",
+                   byName.size(), invalid, scanned.bundleByName().size(),
+                   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), threads);
+    }
+
+    // Returns null if the file no longer exists
+    private static Entry load(Path file) {
+        Entry entry = read(file);
+        report(file, entry);
+        return entry;
+    }
+
+    // Like load, but leaves reporting an invalid preset to the caller
+    private static Entry read(Path file) {
+        String name = nameOf(file);
+        try {
+            PresetCache.Preset preset = PresetCache.get(file);
+            return preset == null ? null : new Entry(name, preset, null);
+        } catch (IOException e) {
+            String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            return new Entry(name, null, error);
+        }
+    }
+
+    private static void report(Path file, Entry entry) {
+        if (entry != null && entry.error() != null) {
+            LOGGER.warn("Invalid autoloader preset {}: {}", file.getFileName(), entry.error());
+        }
+    }
+
+    // Returns null if the bundle no longer exists or cannot be indexed
+    private static PresetBundle openBundle(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return PresetBundle.open(file);
+        } catch (IOException e) {
+            LOGGER.warn("Invalid autoloader preset bundle {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static Index buildIndex(Map<String, Entry> byName, Map<Path, PresetBundle> bundles) {
+        Map<String, List<String>> namesByProfile = new HashMap<>();
+        for (Entry entry : byName.values()) {
+            // Presets that inherit their profile are only known once resolved
+            if (entry.preset() != null && entry.preset().profileName() != null) {
+                namesByProfile.computeIfAbsent(entry.preset().profileName(), profile -> new ArrayList<>()).add(entry.name());
+            }
+        }
+        namesByProfile.replaceAll((profile, names) -> List.copyOf(names));
+        Map<String, PresetBundle> bundleByName = new HashMap<>();
+        for (PresetBundle bundle : bundles.values()) {
+            for (String name : bundle.names()) {
+                if (byName.containsKey(name)) {
+                    LOGGER.debug("Preset file {} shadows the preset in bundle {}", name, bundle.getFile().getFileName());
+                } else if (bundleByName.putIfAbsent(name, bundle) != null) {
+                    LOGGER.warn("Preset '{}' is in more than one bundle - using {}", name,
+                               bundleByName.get(name).getFile().getFileName());
+                }
+            }
+        }
+        return new Index(Map.copyOf(byName), Map.copyOf(namesByProfile), Map.copyOf(bundles), Map.copyOf(bundleByName));
+    }
+
+    private static String nameOf(Path file) {
+        return stripExtension(file.getFileName().toString());
+    }
+
+    private static String stripExtension(String name) {
+        return name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : name;
+    }
+}
@@ -0,0 +1,222 @@
+package com.lostcitiesautoloader;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves presets that extend other presets
+ *
+ * A preset may name a parent with {@code "extends"}. Its settings are deep-merged over the
+ * parent's - objects merge key by key, any other value in the child replaces the parent's -
+ * and it inherits the parent's profile unless it sets its own. Resolved presets are memoized
+ * together with the parent links between them, so a chain is only merged once. Resolving
+ * walks up only to the first memoized ancestor, and a changed preset invalidates just itself
+ * and the presets that extend it, directly or further down.
+ */
+public class PresetResolver {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Gson GSON = new Gson();
+    private static final String EXTENSION = ".json";
+
+    /**
+     * Source of unresolved presets by name
+     */
+    @FunctionalInterface
+    public interface Lookup {
+        /**
+         * @return the preset as parsed, or null if there is no preset with that name
+         * @throws IOException if the preset exists but cannot be used
+         */
+        PresetCache.Preset load(String name) throws IOException;
+    }
+
+    // Guarded by the class lock. Lookups run without it: a lookup may wait for the preset scan
+    // or take the registry lock, and the registry calls invalidate while holding that lock.
+    private static final Map<String, PresetCache.Preset> RESOLVED = new HashMap<>();
+    private static final Map<String, String> PARENTS = new HashMap<>();
+    private static final Map<String, Set<String>> CHILDREN = new HashMap<>();
+    // Bumped by every invalidation, so a resolve that raced one does not memoize what it read
+    private static long generation = 0;
+
+    /**
+     * Resolve a preset and everything it extends
+     *
+     * @param name the preset name, with or without the .json extension
+     * @return the resolved preset, or null if there is no preset with that name
+     * @throws IOException if the preset or one of its ancestors is missing, invalid or part of a cycle
+     */
+    public static PresetCache.Preset resolve(String name, Lookup lookup) throws IOException {
+        String presetName = stripExtension(name);
+        long startGeneration;
+        synchronized (PresetResolver.class) {
+            PresetCache.Preset memoized = RESOLVED.get(presetName);
+            if (memoized != null) {
+                return memoized;
+            }
+            startGeneration = generation;
+        }
+
+        // Walk up to the root or the first ancestor that is already resolved
+        Deque<String> chain = new ArrayDeque<>();
+        Map<String, PresetCache.Preset> raw = new HashMap<>();
+        Set<String> visited = new LinkedHashSet<>();
+        PresetCache.Preset resolved = null;
+        String current = presetName;
+        while (current != null && (resolved = memoized(current)) == null) {
+            if (!visited.add(current)) {
+                throw new IOException("Preset inheritance cycle: " + String.join(" -> ", visited) + " -> " + current);
+            }
+            PresetCache.Preset preset = lookup.load(current);
+            if (preset == null) {
+                if (current.equals(presetName)) {
+                    return null;
+                }
+                throw new IOException("Preset " + chain.peek() + " extends unknown preset '" + current + "'");
+            }
+            chain.push(current);
+            raw.put(current, preset);
+            current = preset.parent() == null ? null : stripExtension(preset.parent());
+        }
+
+        // Merge back down, then memoize every preset on the way unless something changed meanwhile
+        Map<String, PresetCache.Preset> merged = new LinkedHashMap<>();
+        while (!chain.isEmpty()) {
+            String childName = chain.pop();
+            resolved = merge(childName, raw.get(childName), resolved);
+            merged.put(childName, resolved);
+        }
+        synchronized (PresetResolver.class) {
+            if (generation == startGeneration) {
+                for (Map.Entry<String, PresetCache.Preset> entry : merged.entrySet()) {
+                    String childName = entry.getKey();
+                    String parent = raw.get(childName).parent();
+                    RESOLVED.put(childName, entry.getValue());
+                    if (parent != null) {
+                        String parentName = stripExtension(parent);
+                        PARENTS.put(childName, parentName);
+                        CHILDREN.computeIfAbsent(parentName, key -> new HashSet<>()).add(childName);
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Names of the presets a preset extends, nearest first, as of its last resolve
+     */
+    public static synchronized List<String> dependencies(String name) {
+        List<String> ancestors = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        String parent = PARENTS.get(stripExtension(name));
+        while (parent != null && visited.add(parent)) {
+            ancestors.add(parent);
+            parent = PARENTS.get(parent);
+        }
+        return ancestors;
+    }
+
+    /**
+     * Drop a changed preset and every preset that extends it
+     */
+    public static synchronized void invalidate(String name) {
+        generation++;
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(stripExtension(name));
+        int dropped = 0;
+        while (!pending.isEmpty()) {
+            String presetName = pending.pop();
+            if (RESOLVED.remove(presetName) != null) {
+                dropped++;
+            }
+            String parent = PARENTS.remove(presetName);
+            if (parent != null) {
+                Set<String> siblings = CHILDREN.get(parent);
+                if (siblings != null) {
+                    siblings.remove(presetName);
+                }
+            }
+            Set<String> children = CHILDREN.remove(presetName);
+            if (children != null) {
+                pending.addAll(children);
+            }
+        }
+        if (dropped > 1) {
+            LOGGER.debug("Preset {} changed - re-resolving it and {} preset(s) extending it", name, dropped - 1);
+        }
+    }
+
+    /**
+     * Drop every resolved preset
+     */
+    public static synchronized void invalidateAll() {
+        generation++;
+        RESOLVED.clear();
+        PARENTS.clear();
+        CHILDREN.clear();
+    }
+
+    private static synchronized PresetCache.Preset memoized(String name) {
+        return RESOLVED.get(name);
+    }
+
+    private static PresetCache.Preset merge(String name, PresetCache.Preset preset, PresetCache.Preset parent) throws IOException {
+        if (parent == null) {
+            // Root of the chain - nothing to merge
+            return preset;
+        }
+        String profile = preset.profileName() != null ? preset.profileName() : parent.profileName();
+        String settingsJson;
+        if (preset.settingsJson() == null || parent.settingsJson() == null) {
+            settingsJson = preset.settingsJson() != null ? preset.settingsJson() : parent.settingsJson();
+        } else {
+            try {
+                JsonElement settings = deepMerge(JsonParser.parseString(parent.settingsJson()),
+                        JsonParser.parseString(preset.settingsJson()));
+                settingsJson = GSON.toJson(settings);
+            } catch (RuntimeException e) {
+                throw new IOException("Failed to merge preset " + name + " over its parent", e);
+            }
+        }
+
+        // Chained so that a change anywhere up the chain changes the hash
+        MessageDigest digest = ProfileApplyEngine.newDigest();
+        digest.update((parent.contentHash() + "\n" + preset.contentHash()).getBytes(StandardCharsets.UTF_8));
+        return new PresetCache.Preset(profile, settingsJson, HexFormat.of().formatHex(digest.digest()), null);
+    }
+
+    private static JsonElement deepMerge(JsonElement parent, JsonElement child) {
+        if (!parent.isJsonObject() || !child.isJsonObject()) {
+            return child;
+        }
+        JsonObject merged = parent.getAsJsonObject().deepCopy();
+        for (Map.Entry<String, JsonElement> entry : child.getAsJsonObject().entrySet()) {
+            JsonElement inherited = merged.get(entry.getKey());
+            merged.add(entry.getKey(), inherited == null ? entry.getValue() : deepMerge(inherited, entry.getValue()));
+        }
+        return merged;
+    }
+
+    private static String stripExtension(String name) {
+        return name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : name;
+    }
+}
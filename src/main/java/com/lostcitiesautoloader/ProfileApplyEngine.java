@@ -0,0 +1,92 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Tracks what was last applied to Lost Cities so repeated lifecycle events only apply once
+ *
+ * The fingerprint covers every input that influences an apply: the preset contents,
+ * the autoloader config values and the set of Lost Cities profiles. If none of these
+ * changed since the last successful apply, the apply (and the Lost Cities cache
+ * invalidation that comes with it) is skipped.
+ */
+public class ProfileApplyEngine {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static volatile String lastAppliedFingerprint = null;
+
+    /**
+     * Compute the fingerprint of the resolved apply inputs
+     */
+    public static String fingerprint(List<AutoloaderProfileManager.DimensionPreset> presets,
+                                     Collection<String> availableProfiles) {
+        MessageDigest digest = newDigest();
+
+        // Preset order matters - the first one also sets Lost Cities' global profile
+        for (AutoloaderProfileManager.DimensionPreset preset : presets) {
+            updateString(digest, preset.preset() == null ? null : preset.preset().contentHash());
+            updateString(digest, preset.configFileName());
+            updateString(digest, preset.dimension());
+        }
+
+        // Profile order in Lost Cities' map is not stable, so sort before hashing
+        List<String> profiles = new ArrayList<>(availableProfiles);
+        profiles.sort(null);
+        for (String profile : profiles) {
+            updateString(digest, profile);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Check whether the given fingerprint matches the last successful apply
+     */
+    public static boolean isUpToDate(String fingerprint) {
+        return fingerprint.equals(lastAppliedFingerprint);
+    }
+
+    /**
+     * Record a successful apply
+     */
+    public static void markApplied(String fingerprint) {
+        lastAppliedFingerprint = fingerprint;
+        LOGGER.debug("Recorded applied configuration fingerprint: {}", fingerprint);
+    }
+
+    /**
+     * Forget the last apply so the next server start applies again
+     */
+    public static void reset() {
+        lastAppliedFingerprint = null;
+    }
+
+    private static void updateString(MessageDigest digest, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        // Length-prefix each value so ("ab", "c") and ("a", "bc") hash differently
+        int length = bytes.length;
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        digest.update(bytes);
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime is required to provide SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.neoforge.server.ServerLifecycleHooks;
+import org.slf4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Tracks the preconditions for applying the autoloader configuration
+ *
+ * Each stage is marked by the lifecycle event (or one-off probe) that makes it true, and
+ * the apply fires exactly once per server start as soon as every stage holds. The time at
+ * which each stage was reached is recorded as JVM uptime, so the startup log shows where
+ * the mod spent its time waiting.
+ */
+public class ReadinessTracker {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public enum Stage {
+        LOST_CITIES_PRESENT,
+        CONFIG_LOADED,
+        AUTOLOADER_ENABLED,
+        PROFILES_REGISTERED,
+        SERVER_STARTING
+    }
+
+    private static final Map<Stage, Long> reachedAt = new EnumMap<>(Stage.class);
+    private static boolean applied = false;
+    // Spans from the first stage reached to the apply, for flight recordings
+    private static AutoloaderEvents.ReadinessWait readinessWait = null;
+
+    /**
+     * Record that a stage now holds, and apply if it was the last one missing
+     */
+    public static void markReached(Stage stage) {
+        synchronized (reachedAt) {
+            if (reachedAt.containsKey(stage)) {
+                return;
+            }
+            if (readinessWait == null && !applied) {
+                readinessWait = new AutoloaderEvents.ReadinessWait();
+                readinessWait.begin();
+            }
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            reachedAt.put(stage, uptime);
+            LOGGER.debug("Readiness stage reached: {} at {} ms", stage, uptime);
+            if (!isReady() || applied) {
+                return;
+            }
+            applied = true;
+            readinessWait.stage = stage.name();
+            readinessWait.commit();
+            readinessWait = null;
+            LOGGER.info("Lost Cities Autoloader ready - {}", describe());
+        }
+
+        // Apply outside the lock; the apply must run on the server thread
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null || server.isSameThread()) {
+            AutoloaderProfileManager.loadAndApplyConfiguration();
+        } else {
+            server.execute(AutoloaderProfileManager::loadAndApplyConfiguration);
+        }
+    }
+
+    /**
+     * Record that a stage no longer holds, e.g. the autoloader was disabled in a config reload
+     */
+    public static void markLost(Stage stage) {
+        synchronized (reachedAt) {
+            reachedAt.remove(stage);
+        }
+    }
+
+    /**
+     * Mark Lost Cities' profiles as registered once they show up. Probing stops after that.
+     */
+    public static void probeProfiles() {
+        synchronized (reachedAt) {
+            if (reachedAt.containsKey(Stage.PROFILES_REGISTERED) || !reachedAt.containsKey(Stage.LOST_CITIES_PRESENT)) {
+                return;
+            }
+        }
+        if (!LostCitiesBridge.getStandardProfiles().isEmpty()) {
+            markReached(Stage.PROFILES_REGISTERED);
+        }
+    }
+
+    /**
+     * Check whether every precondition currently holds
+     */
+    public static boolean isReady() {
+        synchronized (reachedAt) {
+            return reachedAt.size() == Stage.values().length;
+        }
+    }
+
+    /**
+     * Reset the per-server stages so the next server start applies again
+     */
+    public static void onServerStopped() {
+        synchronized (reachedAt) {
+            reachedAt.remove(Stage.SERVER_STARTING);
+            applied = false;
+            readinessWait = null;
+        }
+    }
+
+    /**
+     * When each stage was reached, in milliseconds of JVM uptime
+     */
+    public static String describe() {
+        synchronized (reachedAt) {
+            StringJoiner joiner = new StringJoiner(", ");
+            for (Stage stage : Stage.values()) {
+                Long uptime = reachedAt.get(stage);
+                joiner.add(stage.name().toLowerCase() + (uptime == null ? " pending" : " at " + uptime + " ms"));
+            }
+            return joiner.toString();
+        }
+    }
+}
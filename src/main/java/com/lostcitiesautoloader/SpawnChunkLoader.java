@@ -0,0 +1,144 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads custom spawn chunks in the background before players are teleported into them
+ *
+ * A region ticket makes the chunk system load (and generate, if needed) the target chunk
+ * on its worker threads, so the server thread never has to generate a Lost Cities chunk
+ * synchronously inside a teleport. Readiness is checked once per tick. Every player waiting
+ * on the same chunk shares a single request and ticket. The ticket stays until every
+ * requester has released the chunk, so it cannot unload between becoming ready and the
+ * queued teleport into it. Everything here runs on the server thread.
+ */
+@EventBusSubscriber(modid = LostCitiesAutoloaderMod.MODID)
+public class SpawnChunkLoader {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // No lifespan - tickets are removed explicitly once the last requester released the chunk
+    private static final TicketType<ChunkPos> SPAWN_PRELOAD =
+            TicketType.create(LostCitiesAutoloaderMod.MODID + ":spawn_preload", Comparator.comparingLong(ChunkPos::toLong));
+    // Radius 1 keeps the target chunk ticking and its neighbours fully loaded
+    private static final int TICKET_RADIUS = 1;
+
+    private static final Map<ChunkKey, PendingChunk> PENDING = new HashMap<>();
+    // Number of requesters holding each ticketed chunk, loaded or not
+    private static final Map<ChunkKey, Integer> HOLDERS = new HashMap<>();
+    // Copy of the pending count for the metrics exporter threads, which must not touch the map
+    private static volatile int pendingCount = 0;
+    private static long currentTick = 0;
+
+    private record ChunkKey(ResourceKey<Level> dimension, long chunk) {
+    }
+
+    private record PendingChunk(ServerLevel level, ChunkPos pos, long deadlineTick, CompletableFuture<Boolean> future) {
+    }
+
+    /**
+     * Request a chunk and get notified once it is fully loaded. The chunk is held loaded until
+     * {@link #releaseChunk} is called, which every request must be paired with.
+     *
+     * @return a future completed on the server thread with true once the chunk is loaded,
+     *         or false if it was not ready within the timeout
+     */
+    public static CompletableFuture<Boolean> requestChunk(ServerLevel level, ChunkPos pos, int timeoutTicks) {
+        ChunkKey key = new ChunkKey(level.dimension(), pos.toLong());
+        if (HOLDERS.merge(key, 1, Integer::sum) == 1) {
+            level.getChunkSource().addRegionTicket(SPAWN_PRELOAD, pos, TICKET_RADIUS, pos);
+        }
+        if (level.hasChunk(pos.x, pos.z)) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        PendingChunk pending = PENDING.get(key);
+        if (pending == null) {
+            pending = new PendingChunk(level, pos, currentTick + timeoutTicks, new CompletableFuture<>());
+            PENDING.put(key, pending);
+            pendingCount = PENDING.size();
+            LOGGER.debug("Preloading spawn chunk {} in {}", pos, level.dimension().location());
+        }
+        return pending.future();
+    }
+
+    /**
+     * Drop one requester's hold on a chunk, removing the ticket once nobody holds it
+     */
+    public static void releaseChunk(ServerLevel level, ChunkPos pos) {
+        ChunkKey key = new ChunkKey(level.dimension(), pos.toLong());
+        Integer holders = HOLDERS.get(key);
+        if (holders == null) {
+            return;
+        }
+        if (holders > 1) {
+            HOLDERS.put(key, holders - 1);
+        } else {
+            HOLDERS.remove(key);
+            level.getChunkSource().removeRegionTicket(SPAWN_PRELOAD, pos, TICKET_RADIUS, pos);
+        }
+    }
+
+    /**
+     * Number of distinct chunks currently being preloaded, safe to read from any thread
+     */
+    public static int getPendingChunkCount() {
+        return pendingCount;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        currentTick++;
+        if (PENDING.isEmpty()) {
+            return;
+        }
+
+        List<PendingChunk> finished = new ArrayList<>();
+        Iterator<PendingChunk> iterator = PENDING.values().iterator();
+        while (iterator.hasNext()) {
+            PendingChunk pending = iterator.next();
+            if (currentTick >= pending.deadlineTick() || pending.level().hasChunk(pending.pos().x, pending.pos().z)) {
+                iterator.remove();
+                finished.add(pending);
+            }
+        }
+        pendingCount = PENDING.size();
+
+        // Complete outside the iteration - waiters may request further chunks
+        for (PendingChunk pending : finished) {
+            boolean ready = pending.level().hasChunk(pending.pos().x, pending.pos().z);
+            if (!ready) {
+                LOGGER.warn("Spawn chunk {} in {} was not ready in time", pending.pos(), pending.level().dimension().location());
+            }
+            // Waiters only queue their teleport here - each releases the chunk once it ran
+            pending.future().complete(ready);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        for (PendingChunk pending : PENDING.values()) {
+            pending.future().cancel(false);
+        }
+        PENDING.clear();
+        HOLDERS.clear();
+        pendingCount = 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.lostcitiesautoloader;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.UUID;
+
+/**
+ * Remembers which players have already been placed at the custom spawn
+ *
+ * Stored with the overworld's saved data as one long array of msb/lsb pairs, so even
+ * 100k+ historical players cost a couple of megabytes on disk and in memory.
+ */
+public class SpawnedPlayersData extends SavedData {
+    private static final String DATA_NAME = LostCitiesAutoloaderMod.MODID + "_spawned_players";
+    private static final String PLAYERS_TAG = "players";
+
+    private final UuidHashSet players;
+
+    private SpawnedPlayersData(UuidHashSet players) {
+        this.players = players;
+    }
+
+    private static SpawnedPlayersData create() {
+        return new SpawnedPlayersData(new UuidHashSet());
+    }
+
+    private static SpawnedPlayersData load(CompoundTag tag, HolderLookup.Provider registries) {
+        return new SpawnedPlayersData(UuidHashSet.fromLongArray(tag.getLongArray(PLAYERS_TAG)));
+    }
+
+    public static SpawnedPlayersData get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(
+                new SavedData.Factory<>(SpawnedPlayersData::create, SpawnedPlayersData::load, null), DATA_NAME);
+    }
+
+    public boolean hasSpawned(UUID player) {
+        return players.contains(player);
+    }
+
+    public void markSpawned(UUID player) {
+        if (players.add(player)) {
+            setDirty();
+        }
+    }
+
+    public int size() {
+        return players.size();
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        tag.putLongArray(PLAYERS_TAG, players.toLongArray());
+        return tag;
+    }
+}
@@ -0,0 +1,120 @@
+package com.lostcitiesautoloader;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads custom spawn teleports over several ticks
+ *
+ * After a restart many players reconnect at once; teleporting all of them inside their
+ * login events piles every cross-dimension transition into one tick. Teleports are queued
+ * instead and drained each tick until either the millisecond budget or the per-tick cap
+ * is reached. At least one teleport runs per tick so the queue always makes progress.
+ * Each queued teleport holds its target chunk in {@link SpawnChunkLoader} and releases it
+ * once the teleport ran or was dropped. Everything here runs on the server thread.
+ */
+@EventBusSubscriber(modid = LostCitiesAutoloaderMod.MODID)
+public class TeleportScheduler {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final ArrayDeque<PendingTeleport> QUEUE = new ArrayDeque<>();
+    // Copy of the queue size for the metrics exporter threads, which must not touch the queue
+    private static volatile int queueDepth = 0;
+
+    // Largest queue depth and wait of the current burst, reported once the queue is empty again
+    private static int burstPeakDepth = 0;
+    private static int burstTeleports = 0;
+    private static long burstMaxWaitNanos = 0;
+
+    private record PendingTeleport(ServerPlayer player, ServerLevel level, ChunkPos chunk, double x, double y, double z,
+                                   float yRot, ConfigSnapshot config, AutoloaderEvents.SpawnTeleport event, long enqueuedNanos) {
+    }
+
+    /**
+     * Queue a teleport to run within the next ticks' budget
+     *
+     * @param chunk the target chunk, requested from {@link SpawnChunkLoader} and released here
+     */
+    public static void enqueue(ServerPlayer player, ServerLevel level, ChunkPos chunk, double x, double y, double z,
+                               float yRot, ConfigSnapshot config, AutoloaderEvents.SpawnTeleport event) {
+        QUEUE.addLast(new PendingTeleport(player, level, chunk, x, y, z, yRot, config, event, System.nanoTime()));
+        AutoloaderMetrics.TELEPORTS_QUEUED.increment();
+        queueDepth = QUEUE.size();
+        burstPeakDepth = Math.max(burstPeakDepth, QUEUE.size());
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (QUEUE.isEmpty()) {
+            return;
+        }
+
+        ConfigSnapshot config = QUEUE.peekFirst().config();
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(config.teleportTickBudgetMs());
+        int maxPerTick = config.teleportMaxPerTick();
+
+        long start = System.nanoTime();
+        int performed = 0;
+        while (!QUEUE.isEmpty() && performed < maxPerTick) {
+            if (performed > 0 && System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+
+            PendingTeleport teleport = QUEUE.pollFirst();
+            if (teleport.player().hasDisconnected()) {
+                SpawnChunkLoader.releaseChunk(teleport.level(), teleport.chunk());
+                teleport.event().outcome = "disconnected";
+                teleport.event().commit();
+                continue;
+            }
+
+            long waitNanos = System.nanoTime() - teleport.enqueuedNanos();
+            burstMaxWaitNanos = Math.max(burstMaxWaitNanos, waitNanos);
+            AutoloaderMetrics.TELEPORTS_PERFORMED.increment();
+            AutoloaderMetrics.TELEPORT_QUEUE_WAIT.record(waitNanos);
+            burstTeleports++;
+
+            DimensionManager.performTeleport(teleport.player(), teleport.level(), teleport.x(), teleport.y(), teleport.z(),
+                    teleport.yRot(), teleport.config(), teleport.event());
+            SpawnChunkLoader.releaseChunk(teleport.level(), teleport.chunk());
+            performed++;
+        }
+        queueDepth = QUEUE.size();
+
+        if (QUEUE.isEmpty() && burstTeleports > 1) {
+            LOGGER.info("Teleport queue drained: {} teleports, peak depth {}, max wait {} ms",
+                       burstTeleports, burstPeakDepth, TimeUnit.NANOSECONDS.toMillis(burstMaxWaitNanos));
+        }
+        if (QUEUE.isEmpty()) {
+            burstPeakDepth = 0;
+            burstTeleports = 0;
+            burstMaxWaitNanos = 0;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        QUEUE.clear();
+        queueDepth = 0;
+        burstPeakDepth = 0;
+        burstTeleports = 0;
+        burstMaxWaitNanos = 0;
+    }
+
+    /**
+     * Number of teleports waiting to run, safe to read from any thread
+     */
+    public static int getQueueDepth() {
+        return queueDepth;
+    }
+}
@@ -0,0 +1,153 @@
+package com.lostcitiesautoloader;
+
+import java.util.UUID;
+
+/**
+ * Compact set of UUIDs stored as pairs of longs in an open-addressing table
+ *
+ * Uses 16 bytes per slot and no per-entry objects, unlike HashSet&lt;UUID&gt; which costs
+ * a UUID, a node and a boxed hash per player. Lookups use linear probing; the table is
+ * kept at most half full. The all-zero UUID marks empty slots and is tracked separately.
+ * Not thread safe.
+ */
+public class UuidHashSet {
+    private static final int MIN_CAPACITY = 16;
+
+    // Slot i holds the most significant bits at 2i and the least significant bits at 2i + 1
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public UuidHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public UuidHashSet(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize);
+        this.table = new long[capacity * 2];
+        this.mask = capacity - 1;
+    }
+
+    public boolean add(UUID uuid) {
+        return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public boolean add(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = findSlot(table, mask, msb, lsb);
+        if (table[slot * 2] != 0 || table[slot * 2 + 1] != 0) {
+            return false;
+        }
+        table[slot * 2] = msb;
+        table[slot * 2 + 1] = lsb;
+        size++;
+
+        if (size * 2 > mask + 1) {
+            resize((mask + 1) * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public boolean contains(long msb, long lsb) {
+        if (msb == 0 && lsb == 0) {
+            return containsZero;
+        }
+        int slot = findSlot(table, mask, msb, lsb);
+        return table[slot * 2] != 0 || table[slot * 2 + 1] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * All entries as consecutive msb/lsb pairs, e.g. for saving
+     */
+    public long[] toLongArray() {
+        long[] result = new long[size * 2];
+        int index = 0;
+        if (containsZero) {
+            index += 2;
+        }
+        for (int slot = 0; slot <= mask; slot++) {
+            long msb = table[slot * 2];
+            long lsb = table[slot * 2 + 1];
+            if (msb != 0 || lsb != 0) {
+                result[index++] = msb;
+                result[index++] = lsb;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Build a set from consecutive msb/lsb pairs as produced by {@link #toLongArray()}
+     */
+    public static UuidHashSet fromLongArray(long[] pairs) {
+        UuidHashSet set = new UuidHashSet(pairs.length / 2);
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            set.add(pairs[i], pairs[i + 1]);
+        }
+        return set;
+    }
+
+    // Returns the slot holding the UUID, or the empty slot where it would go
+    private static int findSlot(long[] table, int mask, long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (true) {
+            long slotMsb = table[slot * 2];
+            long slotLsb = table[slot * 2 + 1];
+            if ((slotMsb == msb && slotLsb == lsb) || (slotMsb == 0 && slotLsb == 0)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] newTable = new long[newCapacity * 2];
+        int newMask = newCapacity - 1;
+        for (int slot = 0; slot <= mask; slot++) {
+            long msb = table[slot * 2];
+            long lsb = table[slot * 2 + 1];
+            if (msb != 0 || lsb != 0) {
+                int newSlot = findSlot(newTable, newMask, msb, lsb);
+                newTable[newSlot * 2] = msb;
+                newTable[newSlot * 2 + 1] = lsb;
+            }
+        }
+        table = newTable;
+        mask = newMask;
+    }
+
+    private static int hash(long msb, long lsb) {
+        // murmur3 finalizer - random UUIDs are already well mixed, but offline-mode UUIDs are not
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        // Keep the table at most half full
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 2);
+        int capacity = Integer.highestOneBit((int) Math.min(needed, 1 << 30));
+        return capacity < needed ? capacity << 1 : capacity;
+    }
+}
@@ -0,0 +1,89 @@
+package com.lostcitiesautoloader;
+
+import mcjty.lostcities.setup.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The apply path against the stand-in Lost Cities classes
+ */
+class ApplyPathTest {
+    private static final String DIMENSION = "lostcities:lostcity";
+    private static final String SETTINGS = "{\"cityChance\":0.02,\"ruinChance\":0.1}";
+
+    @TempDir
+    Path configDirectory;
+
+    @BeforeEach
+    void setUp() {
+        HeadlessLostCities.install(configDirectory);
+    }
+
+    @Test
+    void appliesProfileSettingsAndDimension() {
+        HeadlessLostCities.apply(presets("ancient", SETTINGS));
+
+        assertEquals("ancient", Config.profileFromClient);
+        assertEquals(SETTINGS, Config.jsonFromClient);
+        assertEquals(List.of(DIMENSION + "=ancient"), Config.dimensionsWithProfiles);
+        assertEquals(1, Config.profileCacheResets);
+    }
+
+    @Test
+    void patchesLostCitiesConfigFile() throws IOException {
+        Path commonToml = Files.createDirectories(configDirectory.resolve("lostcities")).resolve("common.toml");
+        Files.writeString(commonToml, "[lostcities]\n    dimensionsWithProfiles = [\"minecraft:the_nether=cavern\"]\n");
+
+        HeadlessLostCities.apply(presets("ancient", SETTINGS));
+
+        assertEquals("[lostcities]\n    dimensionsWithProfiles = [\"minecraft:the_nether=cavern\", \"" + DIMENSION + "=ancient\"]\n",
+                Files.readString(commonToml));
+    }
+
+    @Test
+    void unchangedReapplyDoesNotResetCaches() {
+        HeadlessLostCities.apply(presets("ancient", SETTINGS));
+        // Equal presets built again, as a reload would
+        HeadlessLostCities.apply(presets("ancient", SETTINGS));
+
+        assertEquals(1, Config.profileCacheResets);
+    }
+
+    @Test
+    void unknownProfileLeavesLiveStateUntouched() {
+        HeadlessLostCities.apply(presets("ancient", SETTINGS));
+        List<String> dimensions = new ArrayList<>(Config.dimensionsWithProfiles);
+
+        HeadlessLostCities.apply(presets("no_such_profile", "{\"cityChance\":0.5}"));
+
+        assertEquals("ancient", Config.profileFromClient);
+        assertEquals(SETTINGS, Config.jsonFromClient);
+        assertEquals(dimensions, Config.dimensionsWithProfiles);
+        assertEquals(1, Config.profileCacheResets);
+    }
+
+    @Test
+    void unknownProfileOnFreshInstallWritesNothing() {
+        HeadlessLostCities.apply(presets("no_such_profile", SETTINGS));
+
+        assertEquals("default", Config.profileFromClient);
+        assertNull(Config.jsonFromClient);
+        assertEquals(List.of(), Config.dimensionsWithProfiles);
+        assertEquals(0, Config.profileCacheResets);
+    }
+
+    private static List<AutoloaderProfileManager.DimensionPreset> presets(String profile, String settingsJson) {
+        return List.of(new AutoloaderProfileManager.DimensionPreset(DIMENSION, profile + ".json",
+                HeadlessLostCities.preset(profile, settingsJson)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.lostcitiesautoloader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigSnapshotTest {
+    private static final String LOST_CITY_DIMENSION = "lostcities:lostcity";
+
+    @Test
+    void parsesCoordinatesAndFacing() {
+        ConfigSnapshot snapshot = parse(" 10.5, 64 ,-3 ", "90");
+
+        assertTrue(snapshot.hasSpawnCoordinates());
+        assertEquals(10.5, snapshot.spawnX());
+        assertEquals(64, snapshot.spawnY());
+        assertEquals(-3, snapshot.spawnZ());
+        assertTrue(snapshot.hasSpawnFacing());
+        assertEquals(270f, snapshot.spawnYaw());
+        assertNotNull(snapshot.spawnDimensionKey());
+    }
+
+    @Test
+    void malformedCoordinatesFallBackToDefaultSpawn() {
+        for (String coordinates : new String[] {"10,64", "10,64,-3,5", "10,high,-3", ",,", "   "}) {
+            ConfigSnapshot snapshot = parse(coordinates, "");
+
+            assertFalse(snapshot.hasSpawnCoordinates(), coordinates);
+            assertEquals(0, snapshot.spawnX(), coordinates);
+            assertEquals("at default spawn with default facing", snapshot.spawnDescription(), coordinates);
+        }
+    }
+
+    @Test
+    void malformedFacingFallsBackToDefaultFacing() {
+        ConfigSnapshot snapshot = parse("0,64,0", "north");
+
+        assertTrue(snapshot.hasSpawnCoordinates());
+        assertFalse(snapshot.hasSpawnFacing());
+        assertEquals(0f, snapshot.spawnYaw());
+    }
+
+    @Test
+    void invalidSpawnDimensionHasNoKey() {
+        ConfigSnapshot snapshot = ConfigSnapshot.parse(true, "survival_cities.json", LOST_CITY_DIMENSION, List.of(),
+                true, "Not A Dimension", "", "", AutoloaderConfigSimple.SpawnTeleportPolicy.FIRST_JOIN, 200,
+                AutoloaderConfigSimple.SpawnTimeoutAction.TELEPORT, 0, 5, 8);
+
+        assertNull(snapshot.spawnDimensionKey());
+    }
+
+    @Test
+    void skipsInvalidDimensionPresets() {
+        ConfigSnapshot snapshot = ConfigSnapshot.parse(true, "survival_cities.json", LOST_CITY_DIMENSION,
+                List.of("minecraft:the_nether = nether_ruins.json", "no separator", "=empty.json",
+                        LOST_CITY_DIMENSION + "=other.json", "minecraft:the_end=end.json", "minecraft:the_end=end2.json"),
+                true, LOST_CITY_DIMENSION, "", "", AutoloaderConfigSimple.SpawnTeleportPolicy.FIRST_JOIN, 200,
+                AutoloaderConfigSimple.SpawnTimeoutAction.TELEPORT, 0, 5, 8);
+
+        assertEquals(Map.of("minecraft:the_nether", "nether_ruins.json", "minecraft:the_end", "end2.json"),
+                snapshot.dimensionPresets());
+    }
+
+    private static ConfigSnapshot parse(String coordinates, String facing) {
+        return ConfigSnapshot.parse(true, "survival_cities.json", LOST_CITY_DIMENSION, List.of(),
+                true, LOST_CITY_DIMENSION, coordinates, facing, AutoloaderConfigSimple.SpawnTeleportPolicy.FIRST_JOIN, 200,
+                AutoloaderConfigSimple.SpawnTimeoutAction.TELEPORT, 0, 5, 8);
+    }
+}
@@ -0,0 +1,94 @@
+package com.lostcitiesautoloader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LostCitiesTomlPatcherTest {
+    private static final String COMMON_TOML = """
+            [lostcities]
+                #Dimensions that generate with a Lost Cities profile
+                dimensionsWithProfiles = ["lostcities:lostcity=default", "minecraft:the_nether=cavern"]
+                otherSetting = true
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mergeKeepsEntriesThatAlreadyMatch() {
+        List<String> current = List.of(" lostcities:lostcity = default ", "minecraft:the_nether=cavern");
+
+        List<String> merged = LostCitiesTomlPatcher.mergeEntries(current,
+                Map.of("lostcities:lostcity", "default"));
+
+        assertEquals(current, merged);
+    }
+
+    @Test
+    void mergeReplacesChangedEntriesInPlaceAndAppendsNewOnes() {
+        Map<String, String> updates = new LinkedHashMap<>();
+        updates.put("minecraft:the_nether", "atlantis");
+        updates.put("lostcities:lostcity", "default");
+        updates.put("mymod:ruins", "ancient");
+
+        List<String> merged = LostCitiesTomlPatcher.mergeEntries(
+                List.of("lostcities:lostcity=default", " minecraft:the_nether = cavern"), updates);
+
+        assertEquals(List.of("lostcities:lostcity=default", "minecraft:the_nether=atlantis", "mymod:ruins=ancient"), merged);
+    }
+
+    @Test
+    void patchLeavesAnUpToDateFileAlone() throws IOException {
+        Path config = write(COMMON_TOML);
+        FileTime modified = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(config, modified);
+
+        LostCitiesTomlPatcher.Result result = LostCitiesTomlPatcher.patchDimensionProfiles(config,
+                Map.of("lostcities:lostcity", "default", "minecraft:the_nether", "cavern"));
+
+        assertEquals(LostCitiesTomlPatcher.Result.UNCHANGED, result);
+        assertArrayEquals(COMMON_TOML.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(config));
+        assertEquals(modified, Files.getLastModifiedTime(config));
+    }
+
+    @Test
+    void patchRewritesOnlyTheSetting() throws IOException {
+        Path config = write(COMMON_TOML);
+
+        LostCitiesTomlPatcher.Result result = LostCitiesTomlPatcher.patchDimensionProfiles(config,
+                Map.of("lostcities:lostcity", "ancient"));
+
+        assertEquals(LostCitiesTomlPatcher.Result.UPDATED, result);
+        assertEquals(COMMON_TOML.replace("lostcities:lostcity=default", "lostcities:lostcity=ancient"),
+                Files.readString(config));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(config), files.toList());
+        }
+    }
+
+    @Test
+    void patchReportsMissingFileAndSetting() throws IOException {
+        Map<String, String> update = Map.of("lostcities:lostcity", "ancient");
+
+        assertEquals(LostCitiesTomlPatcher.Result.MISSING_FILE,
+                LostCitiesTomlPatcher.patchDimensionProfiles(directory.resolve("common.toml"), update));
+        assertEquals(LostCitiesTomlPatcher.Result.MISSING_SETTING,
+                LostCitiesTomlPatcher.patchDimensionProfiles(write("[lostcities]\n    otherSetting = true\n"), update));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("common.toml"), content);
+    }
+}
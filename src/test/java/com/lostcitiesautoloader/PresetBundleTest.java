@@ -0,0 +1,83 @@
+package com.lostcitiesautoloader;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresetBundleTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsJsonBundlePresetsByName() throws IOException {
+        // Brackets and quotes inside strings, a byte order mark and entries that are not presets must not confuse the index
+        Path file = Files.writeString(directory.resolve("presets" + PresetBundle.JSON_SUFFIX), "\uFEFF" + """
+                [
+                  {"name": "ruins", "profile": "ancient", "settings": {"note": "}] \\"[{"}},
+                  "not a preset",
+                  {"profile": "default"},
+                  {"settings": {"cityChance": 0.5}, "name": "cities", "profile": "onlycities"}
+                ]
+                """);
+
+        PresetBundle bundle = PresetBundle.open(file);
+
+        assertTrue(PresetBundle.isBundle(file));
+        assertEquals(Set.of("ruins", "cities"), bundle.names());
+        PresetCache.Preset ruins = bundle.load("ruins");
+        assertEquals("ancient", ruins.profileName());
+        assertEquals(JsonParser.parseString("{\"note\":\"}] \\\"[{\"}"), JsonParser.parseString(ruins.settingsJson()));
+        PresetCache.Preset cities = bundle.load("cities");
+        assertEquals("onlycities", cities.profileName());
+        assertEquals(JsonParser.parseString("{\"cityChance\":0.5}"), JsonParser.parseString(cities.settingsJson()));
+        assertSame(cities, bundle.load("cities"));
+        assertNull(bundle.load("missing"));
+    }
+
+    @Test
+    void rejectsJsonBundlesThatAreNotArrays() throws IOException {
+        Path file = Files.writeString(directory.resolve("broken" + PresetBundle.JSON_SUFFIX), "{\"name\": \"ruins\"}");
+
+        assertThrows(IOException.class, () -> PresetBundle.open(file));
+    }
+
+    @Test
+    void loadsZipBundlePresetsByName() throws IOException {
+        Path file = directory.resolve("presets" + PresetBundle.ZIP_SUFFIX);
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            write(zip, "ruins.json", "{\"profile\": \"ancient\", \"settings\": {\"ruinChance\": 0.6}}");
+            write(zip, "nested/cities.json", "{\"profile\": \"onlycities\"}");
+            write(zip, "readme.txt", "not a preset");
+        }
+
+        PresetBundle bundle = PresetBundle.open(file);
+
+        assertTrue(PresetBundle.isBundle(file));
+        assertEquals(Set.of("ruins", "cities"), bundle.names());
+        PresetCache.Preset ruins = bundle.load("ruins");
+        assertEquals("ancient", ruins.profileName());
+        assertEquals(JsonParser.parseString("{\"ruinChance\":0.6}"), JsonParser.parseString(ruins.settingsJson()));
+        assertEquals("onlycities", bundle.load("cities").profileName());
+        assertNull(bundle.load("readme"));
+    }
+
+    private static void write(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
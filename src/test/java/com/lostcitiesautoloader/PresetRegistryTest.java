@@ -0,0 +1,92 @@
+package com.lostcitiesautoloader;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class PresetRegistryTest {
+    private static final int ROUNDS = 500;
+
+    @TempDir
+    Path configDirectory;
+    private Path presetDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        HeadlessLostCities.install(configDirectory);
+        presetDirectory = Files.createDirectories(AutoloaderProfileManager.getPresetDirectory());
+    }
+
+    @Test
+    void refreshDoesNotDeadlockAgainstResolve() throws Exception {
+        Path base = write("base", "{\"profile\":\"ancient\",\"settings\":{\"chance\":0}}");
+        write("child", "{\"extends\":\"base\",\"settings\":{\"size\":3}}");
+        PresetRegistry.scanAsync().join();
+
+        // Daemon threads, so a deadlock fails the test instead of hanging the run
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "PresetRegistryTest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> refreshes = executor.submit(() -> {
+                for (int i = 1; i <= ROUNDS; i++) {
+                    write("base", "{\"profile\":\"ancient\",\"settings\":{\"chance\":" + i + "}}");
+                    PresetRegistry.refresh(List.of(base));
+                }
+                return null;
+            });
+            Future<?> resolves = executor.submit(() -> {
+                for (int i = 0; i < ROUNDS; i++) {
+                    assertEquals("ancient", resolve("child").profileName());
+                }
+                return null;
+            });
+            refreshes.get(30, TimeUnit.SECONDS);
+            resolves.get(30, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            fail("Refreshing presets and resolving them deadlocked");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A size no earlier round had, so the stat check cannot miss it
+        write("base", "{\"profile\":\"ancient\",\"settings\":{\"chance\":1000000}}");
+        PresetRegistry.refresh(List.of(base));
+        assertEquals(JsonParser.parseString("{\"chance\":1000000,\"size\":3}"),
+                JsonParser.parseString(resolve("child").settingsJson()));
+    }
+
+    private static PresetCache.Preset resolve(String name) throws IOException {
+        return PresetResolver.resolve(name, presetName -> {
+            PresetRegistry.Entry entry = PresetRegistry.get(presetName);
+            if (entry != null && entry.preset() == null) {
+                throw new IOException(presetName + ": " + entry.error());
+            }
+            return entry == null ? null : entry.preset();
+        });
+    }
+
+    // Replaces the file in one step, so a concurrent read never sees it half written
+    private Path write(String name, String json) throws IOException {
+        Path file = presetDirectory.resolve(name + ".json");
+        Path temp = Files.writeString(presetDirectory.resolve("." + name + ".tmp"), json);
+        return Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.lostcitiesautoloader;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresetResolverTest {
+    private final Map<String, PresetCache.Preset> presets = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        PresetResolver.invalidateAll();
+    }
+
+    @Test
+    void deepMergesSettingsOverTheParent() throws IOException {
+        add("base", "{\"profile\":\"ancient\",\"settings\":{\"city\":{\"chance\":0.1,\"size\":3},\"ruins\":true}}");
+        add("child", "{\"extends\":\"base.json\",\"settings\":{\"city\":{\"chance\":0.5},\"ruins\":[1,2]}}");
+
+        PresetCache.Preset resolved = PresetResolver.resolve("child.json", presets::get);
+
+        assertEquals("ancient", resolved.profileName());
+        assertEquals(JsonParser.parseString("{\"city\":{\"chance\":0.5,\"size\":3},\"ruins\":[1,2]}"),
+                JsonParser.parseString(resolved.settingsJson()));
+        assertEquals(List.of("base"), PresetResolver.dependencies("child"));
+    }
+
+    @Test
+    void childProfileOverridesTheParent() throws IOException {
+        add("base", "{\"profile\":\"ancient\",\"settings\":{\"ruins\":true}}");
+        add("child", "{\"extends\":\"base\",\"profile\":\"wasteland\"}");
+
+        PresetCache.Preset resolved = PresetResolver.resolve("child", presets::get);
+
+        assertEquals("wasteland", resolved.profileName());
+        assertEquals(JsonParser.parseString("{\"ruins\":true}"), JsonParser.parseString(resolved.settingsJson()));
+    }
+
+    @Test
+    void memoizesUntilAnAncestorIsInvalidated() throws IOException {
+        add("base", "{\"profile\":\"ancient\",\"settings\":{\"ruins\":true}}");
+        add("middle", "{\"extends\":\"base\",\"settings\":{\"city\":1}}");
+        add("child", "{\"extends\":\"middle\"}");
+
+        PresetCache.Preset first = PresetResolver.resolve("child", presets::get);
+        assertSame(first, PresetResolver.resolve("child", presets::get));
+        assertEquals(List.of("middle", "base"), PresetResolver.dependencies("child"));
+
+        add("base", "{\"profile\":\"ancient\",\"settings\":{\"ruins\":false}}");
+        PresetResolver.invalidate("base");
+        PresetCache.Preset second = PresetResolver.resolve("child", presets::get);
+
+        assertNotEquals(first.contentHash(), second.contentHash());
+        assertEquals(JsonParser.parseString("{\"ruins\":false,\"city\":1}"), JsonParser.parseString(second.settingsJson()));
+    }
+
+    @Test
+    void rejectsInheritanceCycles() {
+        add("a", "{\"extends\":\"b\"}");
+        add("b", "{\"extends\":\"c\"}");
+        add("c", "{\"extends\":\"a\",\"profile\":\"default\"}");
+
+        IOException e = assertThrows(IOException.class, () -> PresetResolver.resolve("a", presets::get));
+        assertTrue(e.getMessage().contains("a -> b -> c -> a"), e.getMessage());
+    }
+
+    @Test
+    void reportsMissingPresetsAndParents() throws IOException {
+        add("orphan", "{\"extends\":\"gone\"}");
+
+        assertNull(PresetResolver.resolve("missing", presets::get));
+        assertThrows(IOException.class, () -> PresetResolver.resolve("orphan", presets::get));
+    }
+
+    private void add(String name, String json) {
+        byte[] content = json.getBytes(StandardCharsets.UTF_8);
+        JsonObject config = JsonParser.parseString(json).getAsJsonObject();
+        try {
+            presets.put(name, PresetCache.parse(name, config, content));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
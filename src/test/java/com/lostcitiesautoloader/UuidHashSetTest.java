@@ -0,0 +1,79 @@
+package com.lostcitiesautoloader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidHashSetTest {
+    private static final UUID ZERO = new UUID(0, 0);
+
+    @Test
+    void addsAndFindsUuids() {
+        UuidHashSet set = new UuidHashSet();
+        UUID player = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+
+        assertFalse(set.contains(player));
+        assertTrue(set.add(player));
+        assertFalse(set.add(player));
+        assertTrue(set.contains(player));
+        assertFalse(set.contains(UUID.fromString("61699b2e-d327-4a01-9f1e-0ea8c3f06bc6")));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void keepsEveryUuidAcrossResizes() {
+        UuidHashSet set = new UuidHashSet(1);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Offline-mode UUIDs differ in few bits, which stresses the probing
+            UUID player = UUID.nameUUIDFromBytes(("OfflinePlayer:player" + i).getBytes());
+            players.add(player);
+            assertTrue(set.add(player));
+        }
+
+        assertEquals(players.size(), set.size());
+        for (UUID player : players) {
+            assertTrue(set.contains(player));
+        }
+        assertFalse(set.contains(UUID.nameUUIDFromBytes("OfflinePlayer:someone_else".getBytes())));
+    }
+
+    @Test
+    void zeroUuidIsAnOrdinaryMember() {
+        UuidHashSet set = new UuidHashSet();
+
+        assertFalse(set.contains(ZERO));
+        assertTrue(set.add(ZERO));
+        assertFalse(set.add(ZERO));
+        assertTrue(set.contains(ZERO));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void roundTripsThroughLongArray() {
+        UuidHashSet set = new UuidHashSet();
+        Set<UUID> expected = new HashSet<>();
+        expected.add(ZERO);
+        for (int i = 0; i < 50; i++) {
+            expected.add(UUID.randomUUID());
+        }
+        expected.forEach(set::add);
+
+        long[] pairs = set.toLongArray();
+        UuidHashSet copy = UuidHashSet.fromLongArray(pairs);
+
+        assertEquals(expected.size() * 2, pairs.length);
+        assertEquals(expected.size(), copy.size());
+        for (UUID uuid : expected) {
+            assertTrue(copy.contains(uuid));
+        }
+    }
+}
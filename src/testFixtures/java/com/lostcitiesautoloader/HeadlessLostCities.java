@@ -0,0 +1,102 @@
+package com.lostcitiesautoloader;
+
+import mcjty.lostcities.config.ProfileSetup;
+import mcjty.lostcities.setup.Config;
+import mcjty.lostcities.worldgen.LostCityFeature;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the autoloader's apply path against the stand-in Lost Cities classes, without Minecraft
+ *
+ * {@link #install()} tells the autoloader Lost Cities is loaded without asking FML and puts
+ * the stand-ins back into the state of a fresh Lost Cities install. Applies then go through
+ * the same fingerprint, transaction and cache refresh as in game; the stand-ins' fields show
+ * what was written. There is no world, so nothing is recorded in a save. Tests that apply
+ * presets pass a directory standing in for config/, so nothing is read from or written next
+ * to the process's working directory.
+ */
+public final class HeadlessLostCities {
+    public static final List<String> STANDARD_PROFILES = List.of("default", "nodamage", "floating", "space", "cavern",
+            "biosphere", "ancient", "wasteland", "atlantis", "safe", "tallbuildings", "rarecities", "onlycities");
+
+    private HeadlessLostCities() {
+    }
+
+    /**
+     * Pretend Lost Cities is loaded and reset it and the autoloader's apply state
+     */
+    public static void install() {
+        LostCitiesConnection.useModPresence(modId -> modId.equals("lostcities"));
+        reset();
+    }
+
+    /**
+     * Like {@link #install()}, with the config directory - Lost Cities' lostcities/common.toml
+     * and the presets in lost_cities_autoloader/ - moved to the given directory
+     */
+    public static void install(Path configDirectory) {
+        install();
+        LostCitiesTomlPatcher.useCommonConfig(configDirectory.resolve("lostcities").resolve("common.toml"));
+        AutoloaderProfileManager.usePresetDirectory(configDirectory.resolve("lost_cities_autoloader"));
+    }
+
+    /**
+     * Pretend Lost Cities is not loaded
+     */
+    public static void installWithoutLostCities() {
+        LostCitiesConnection.useModPresence(modId -> false);
+        reset();
+    }
+
+    /**
+     * Put the stand-ins back into their initial state and forget what was last applied
+     */
+    public static synchronized void reset() {
+        Config.profileFromClient = "default";
+        Config.jsonFromClient = null;
+        Config.dimensionsWithProfiles = new ArrayList<>();
+        Config.profileCacheResets = 0;
+        LostCityFeature.globalDimensionInfoDirtyCounter = 0;
+        ProfileSetup.STANDARD_PROFILES.clear();
+        for (String profile : STANDARD_PROFILES) {
+            ProfileSetup.STANDARD_PROFILES.put(profile, new Object());
+        }
+        ProfileApplyEngine.reset();
+        AppliedStateData.forget();
+        LostCitiesTomlPatcher.useCommonConfig(LostCitiesTomlPatcher.COMMON_CONFIG);
+        AutoloaderProfileManager.usePresetDirectory(AutoloaderProfileManager.PRESET_DIRECTORY);
+        PresetResolver.invalidateAll();
+    }
+
+    /**
+     * An in-memory preset, as if it had been parsed from a file
+     */
+    public static PresetCache.Preset preset(String profile, String settingsJson) {
+        byte[] content = (profile + "\n" + settingsJson).getBytes(StandardCharsets.UTF_8);
+        String contentHash = HexFormat.of().formatHex(ProfileApplyEngine.newDigest().digest(content));
+        return new PresetCache.Preset(profile, settingsJson, contentHash, null);
+    }
+
+    /**
+     * Apply presets the way the autoloader does once Lost Cities is ready, primary dimension first
+     */
+    public static void apply(List<AutoloaderProfileManager.DimensionPreset> presets) {
+        if (!LostCitiesConnection.isAvailable()) {
+            throw new IllegalStateException("Lost Cities stand-ins not available: " + LostCitiesBridge.describeCapabilities());
+        }
+        AutoloaderProfileManager.applyConfiguration(presets, LostCitiesBridge.getStandardProfiles());
+    }
+
+    /**
+     * Resolve presets from config/lost_cities_autoloader/ for a dimension to preset file name selection
+     */
+    public static List<AutoloaderProfileManager.DimensionPreset> resolve(Map<String, String> selection) {
+        return AutoloaderProfileManager.resolvePresets(selection);
+    }
+}
@@ -0,0 +1,11 @@
+package mcjty.lostcities.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Headless stand-in for Lost Cities' profile registry, keyed by profile name
+ */
+public class ProfileSetup {
+    public static final Map<String, Object> STANDARD_PROFILES = new HashMap<>();
+}
@@ -0,0 +1,20 @@
+package mcjty.lostcities.setup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless stand-in for Lost Cities' config holder, with the members the autoloader reaches reflectively
+ */
+public class Config {
+    public static String profileFromClient = "default";
+    public static String jsonFromClient = null;
+    public static List<String> dimensionsWithProfiles = new ArrayList<>();
+
+    // Not in Lost Cities - lets tests see how often the autoloader invalidated the cache
+    public static int profileCacheResets = 0;
+
+    public static void resetProfileCache() {
+        profileCacheResets++;
+    }
+}
@@ -0,0 +1,8 @@
+package mcjty.lostcities.worldgen;
+
+/**
+ * Headless stand-in for Lost Cities' feature, which re-reads dimension info when the counter changes
+ */
+public class LostCityFeature {
+    public static int globalDimensionInfoDirtyCounter = 0;
+}